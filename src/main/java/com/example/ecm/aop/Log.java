@@ -1,6 +1,8 @@
 package com.example.ecm.aop;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -8,6 +10,9 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
 
 @Slf4j
 @Aspect
@@ -37,9 +42,28 @@ public class Log {
                 joinPoint.getSignature().getName(),
                 joinPoint.getTarget().getClass().getSimpleName(),
                 executionTime,
-                mapper.writeValueAsString(joinPoint.getArgs()));
+                mapper.writeValueAsString(describeArgs(joinPoint.getArgs())));
 
         return proceed;
     }
+
+    /**
+     * Заменяет аргументы, которые нельзя или нежелательно сериализовать (файлы, потоки,
+     * объекты запроса и ответа), их кратким описанием, чтобы логирование не читало содержимое файлов.
+     */
+    private Object[] describeArgs(Object[] args) {
+        Object[] described = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg instanceof MultipartFile file) {
+                described[i] = "MultipartFile(" + file.getOriginalFilename() + ", " + file.getSize() + " bytes)";
+            } else if (arg instanceof InputStream || arg instanceof ServletRequest || arg instanceof ServletResponse) {
+                described[i] = arg.getClass().getSimpleName();
+            } else {
+                described[i] = arg;
+            }
+        }
+        return described;
+    }
 }
 
@@ -1,10 +1,78 @@
 package com.example.ecm.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+/**
+ * Пулы потоков приложения.
+ *
+ * <p>Размер каждого именованного пула ограничивает число одновременных обращений к внешней системе,
+ * поэтому пулы разделены по назначению и внедряются по имени. Пулы останавливает контекст Spring
+ * при завершении приложения.</p>
+ */
 @Configuration
 @EnableAsync
 public class AsyncConfig {
-}
 
+    public static final String MINIO_FETCH_EXECUTOR = "minioFetchExecutor";
+    public static final String DOCUMENT_IMPORT_EXECUTOR = "documentImportExecutor";
+    public static final String DOCUMENT_EXPORT_EXECUTOR = "documentExportExecutor";
+    public static final String MAIL_OUTBOX_EXECUTOR = "mailOutboxExecutor";
+
+    /**
+     * Общий пул Spring Boot для асинхронных ответов Spring MVC и методов {@code @Async}.
+     * Spring Boot не создает его, если в контексте есть другой {@link java.util.concurrent.Executor},
+     * поэтому он объявлен здесь так же, как в {@link TaskExecutionAutoConfiguration}, с настройками spring.task.execution.*.
+     */
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Пул параллельного чтения содержимого документов из MinIO.
+     */
+    @Bean(MINIO_FETCH_EXECUTOR)
+    public ThreadPoolTaskExecutor minioFetchExecutor(@Value("${minio.fetch.max-in-flight:8}") int size) {
+        return fixedPool(size, "minio-fetch-");
+    }
+
+    /**
+     * Пул загрузки файлов в MinIO при массовом импорте документов.
+     */
+    @Bean(DOCUMENT_IMPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor documentImportExecutor(@Value("${documents.import.max-in-flight:8}") int size) {
+        return fixedPool(size, "document-import-");
+    }
+
+    /**
+     * Пул чтения объектов MinIO при записи архива экспорта.
+     */
+    @Bean(DOCUMENT_EXPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor documentExportExecutor(@Value("${documents.export.max-in-flight:4}") int size) {
+        return fixedPool(size, "document-export-");
+    }
+
+    /**
+     * Пул отправки пакетов писем из очереди mail_outbox.
+     */
+    @Bean(MAIL_OUTBOX_EXECUTOR)
+    public ThreadPoolTaskExecutor mailOutboxExecutor(@Value("${mail.outbox.workers:4}") int size) {
+        return fixedPool(size, "mail-outbox-");
+    }
+
+    private static ThreadPoolTaskExecutor fixedPool(int size, String threadNamePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        return executor;
+    }
+}
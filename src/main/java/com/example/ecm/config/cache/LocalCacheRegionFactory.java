@@ -0,0 +1,53 @@
+package com.example.ecm.config.cache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+import java.util.Map;
+
+/**
+ * Фабрика регионов кэша второго уровня Hibernate, хранящая данные в памяти приложения.
+ * Каждый регион сущностей, коллекций и результатов запросов ограничен
+ * {@value #MAX_ENTRIES} записями и вытесняет давно не использованные.
+ * Регион отметок времени обновления таблиц не ограничивается: потеря отметки
+ * сделала бы устаревшие результаты кэша запросов действительными.
+ */
+public class LocalCacheRegionFactory extends RegionFactoryTemplate {
+
+    public static final String MAX_ENTRIES = "hibernate.cache.local.max_entries";
+
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private int maxEntries;
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        maxEntries = ConfigurationHelper.getInt(MAX_ENTRIES, configValues, DEFAULT_MAX_ENTRIES);
+    }
+
+    @Override
+    protected void releaseFromUse() {
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return new LocalCacheStorageAccess(maxEntries);
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new LocalCacheStorageAccess(maxEntries);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new LocalCacheStorageAccess(Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.ecm.config.cache;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Хранилище одного региона {@link LocalCacheRegionFactory}: LRU-карта ограниченного размера.
+ * Блокировки для стратегии READ_WRITE Hibernate хранит в этой же карте как обычные значения.
+ */
+class LocalCacheStorageAccess implements DomainDataStorageAccess {
+
+    private final Map<Object, Object> entries;
+
+    LocalCacheStorageAccess(int maxEntries) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        return entries.get(key);
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        entries.put(key, value);
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return entries.containsKey(key);
+    }
+
+    @Override
+    public void evictData() {
+        entries.clear();
+    }
+
+    @Override
+    public void evictData(Object key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public void release() {
+        entries.clear();
+    }
+}
@@ -4,6 +4,7 @@ import com.example.ecm.aop.Loggable;
 import com.example.ecm.dto.patch_requests.PatchAttributeRequest;
 import com.example.ecm.dto.requests.CreateAttributeRequest;
 import com.example.ecm.dto.responses.CreateAttributeResponse;
+import com.example.ecm.dto.responses.CursorPage;
 import com.example.ecm.service.AttributeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -59,16 +60,29 @@ public class AttributeController {
     }
 
     /**
-     * Получает все существующие атрибуты документов с поддержкой пагинации.
+     * Получает все существующие атрибуты документов.
+     * Если передан cursor или size, используется пагинация по курсору: курсор следующей страницы
+     * возвращается в заголовке X-Next-Cursor. Пустой cursor запрашивает первую страницу.
      * @param showOnlyAlive Флаг, показывающий, отображать ли только активные атрибуты (по умолчанию true).
+     * @param cursor Курсор страницы из заголовка X-Next-Cursor предыдущего ответа или пустая строка для первой страницы.
+     * @param size Размер страницы (по умолчанию 100, если передан только cursor).
      * @return Список атрибутов документов в виде объектов {@link CreateAttributeResponse}.
      */
     @GetMapping
-    @Operation(summary = "Получение всех атрибутов", description = "Возвращает страницу атрибутов документов с поддержкой пагинации")
+    @Operation(summary = "Получение всех атрибутов", description = "Возвращает все атрибуты документов или их страницу с пагинацией по курсору")
     public ResponseEntity<List<CreateAttributeResponse>> getAllAttributes(
-            @RequestParam(defaultValue = "true") @Parameter(description = "Отображать только активные атрибуты") Boolean showOnlyAlive) {
-
-        return ResponseEntity.ok(attributeService.getAllAttributes(showOnlyAlive));
+            @RequestParam(defaultValue = "true") @Parameter(description = "Отображать только активные атрибуты") Boolean showOnlyAlive,
+            @RequestParam(required = false) @Parameter(description = "Курсор страницы") String cursor,
+            @RequestParam(required = false) @Parameter(description = "Размер страницы") Integer size) {
+        if (cursor == null && size == null) {
+            return ResponseEntity.ok(attributeService.getAllAttributes(showOnlyAlive));
+        }
+        CursorPage<CreateAttributeResponse> attributes = attributeService.getAllAttributes(showOnlyAlive, cursor, size != null ? size : CursorPage.DEFAULT_SIZE);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (attributes.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, attributes.getNextCursor());
+        }
+        return response.body(attributes.getItems());
     }
 
     /**
@@ -0,0 +1,44 @@
+package com.example.ecm.controller;
+
+import com.example.ecm.aop.Loggable;
+import com.example.ecm.dto.responses.CacheRegionStatisticsResponse;
+import com.example.ecm.service.ReferenceDataCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Контроллер для наблюдения за кэшем второго уровня.
+ */
+@RestController
+@RequestMapping("/cache")
+@RequiredArgsConstructor
+@Loggable
+public class CacheController {
+
+    private final ReferenceDataCache referenceDataCache;
+
+    /**
+     * GET-метод для получения статистики кэша.
+     *
+     * @return Количество попаданий, промахов и записей по регионам кэша.
+     */
+    @Operation(summary = "Статистика кэша", description = "Возвращает количество попаданий и промахов по регионам кэша второго уровня и кэша запросов")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Статистика успешно получена"),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен")
+    })
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/statistics")
+    public ResponseEntity<List<CacheRegionStatisticsResponse>> getStatistics() {
+        return ResponseEntity.ok(referenceDataCache.getStatistics());
+    }
+}
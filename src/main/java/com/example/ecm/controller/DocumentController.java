@@ -5,23 +5,42 @@ import com.example.ecm.dto.patch_requests.PatchDocumentVersionRequest;
 import com.example.ecm.dto.requests.AddCommentRequest;
 import com.example.ecm.dto.requests.CreateDocumentRequest;
 import com.example.ecm.dto.requests.CreateDocumentVersionRequest;
+import com.example.ecm.dto.requests.UploadedContent;
 import com.example.ecm.dto.responses.AddCommentResponse;
+import com.example.ecm.dto.responses.BulkImportResponse;
 import com.example.ecm.dto.responses.CreateDocumentResponse;
 import com.example.ecm.dto.responses.CreateDocumentVersionResponse;
+import com.example.ecm.dto.responses.CursorPage;
+import com.example.ecm.dto.responses.DocumentContentResponse;
+import com.example.ecm.dto.responses.ExportDocumentEntry;
+import com.example.ecm.model.enums.ContentMode;
 import com.example.ecm.model.enums.DocumentState;
 import com.example.ecm.security.UserPrincipal;
+import com.example.ecm.service.DocumentExportService;
+import com.example.ecm.service.DocumentImportService;
 import com.example.ecm.service.DocumentService;
 import com.example.ecm.service.DocumentStateService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Tag(name = "Document Controller", description = "Контроллер для управления документами")
@@ -33,6 +52,8 @@ public class DocumentController {
 
     private final DocumentService documentService;
     private final DocumentStateService documentStateService;
+    private final DocumentImportService documentImportService;
+    private final DocumentExportService documentExportService;
 
     /**
      * Создает новый документ.
@@ -51,11 +72,89 @@ public class DocumentController {
         return ResponseEntity.ok(documentService.createDocument(isDraft, createDocumentRequest));
     }
 
+    /**
+     * Создает новый документ из multipart-запроса.
+     * Файл передается отдельной частью и потоком сохраняется в MinIO без кодирования в Base64.
+     *
+     * @param createDocumentRequest Часть запроса с данными документа.
+     * @param file Часть запроса с содержимым файла.
+     * @return Ответ с информацией о созданном документе.
+     */
+    @Operation(summary = "Создание документа с файлом", description = "Создает новый документ, содержимое передается частью multipart/form-data")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Документ успешно создан"),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос")
+    })
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CreateDocumentResponse> createFileMultipart(@RequestParam(defaultValue = "false") Boolean isDraft,
+                                                                      @Valid @RequestPart("document") CreateDocumentRequest createDocumentRequest,
+                                                                      @RequestPart("file") MultipartFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return ResponseEntity.ok(documentService.createDocument(isDraft, createDocumentRequest, toUploadedContent(file, inputStream)));
+        }
+    }
+
+    /**
+     * Импортирует документы пакетом.
+     * Манифест передается частью manifest в формате NDJSON: одна строка - один документ с полем file,
+     * содержащим имя части запроса с файлом. Повторная отправка манифеста пропускает уже импортированные документы.
+     *
+     * @param manifest Часть запроса с NDJSON-манифестом.
+     * @param request Multipart-запрос с файлами документов.
+     * @return Результаты импорта по строкам манифеста.
+     */
+    @Operation(summary = "Массовый импорт документов", description = "Создает документы по NDJSON-манифесту и файлам из multipart/form-data")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Импорт выполнен, результаты по каждому документу в ответе"),
+            @ApiResponse(responseCode = "400", description = "Некорректный манифест")
+    })
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BulkImportResponse> importDocuments(@RequestPart("manifest") MultipartFile manifest,
+                                                              MultipartHttpServletRequest request) throws IOException {
+        try (InputStream inputStream = manifest.getInputStream()) {
+            return ResponseEntity.ok(documentImportService.importDocuments(inputStream, request.getFileMap()));
+        }
+    }
+
+    /**
+     * Экспортирует документы в ZIP-архив.
+     * Архив передается потоком и содержит manifest.json с метаданными и значениями атрибутов,
+     * а также файлы версий в каталогах documents/{documentId}/{versionId}.
+     *
+     * @param ids Идентификаторы документов.
+     * @param allVersions Экспортировать все версии документов или только последние.
+     * @param isAlive Параметр для экспорта только активных документов.
+     * @param userPrincipal Аутентифицированный пользователь.
+     * @return Поток с ZIP-архивом.
+     */
+    @Operation(summary = "Экспорт документов", description = "Возвращает ZIP-архив с файлами выбранных документов и манифестом метаданных")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Архив успешно сформирован"),
+            @ApiResponse(responseCode = "404", description = "Документ не найден")
+    })
+    @GetMapping(value = "/export", produces = "application/zip")
+    public ResponseEntity<StreamingResponseBody> exportDocuments(
+            @RequestParam List<Long> ids,
+            @RequestParam(defaultValue = "false") Boolean allVersions,
+            @RequestParam(defaultValue = "true") Boolean isAlive,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        List<ExportDocumentEntry> entries = documentExportService.getExportEntries(ids, allVersions, isAlive, userPrincipal);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("documents.zip")
+                        .build()
+                        .toString())
+                .body(outputStream -> documentExportService.writeArchive(entries, outputStream));
+    }
+
     /**
      * Получает документ по его ID.
      *
      * @param id Идентификатор документа.
      * @param isAlive Параметр для отображения только активных документов.
+     * @param content Режим загрузки содержимого версий (по умолчанию содержимое всех версий).
      * @param userPrincipal Аутентифицированный пользователь.
      * @return Ответ с данными документа.
      */
@@ -68,8 +167,9 @@ public class DocumentController {
     public ResponseEntity<CreateDocumentResponse> getDocument(
             @PathVariable Long id,
             @RequestParam(defaultValue = "true") Boolean isAlive,
+            @RequestParam(defaultValue = "ALL") ContentMode content,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        return ResponseEntity.ok(documentService.getDocumentById(id, isAlive, userPrincipal));
+        return ResponseEntity.ok(documentService.getDocumentById(id, isAlive, content, userPrincipal));
     }
 
     @GetMapping("/{id}/transitions")
@@ -102,6 +202,65 @@ public class DocumentController {
         return ResponseEntity.ok(documentService.getDocumentVersionById(documentId, versionId, isAlive, userPrincipal));
     }
 
+    /**
+     * Отдает содержимое версии документа потоком, без загрузки файла в память.
+     * Поддерживает заголовок Range для частичной загрузки.
+     *
+     * @param documentId Идентификатор документа.
+     * @param versionId Идентификатор версии.
+     * @param isAlive Параметр для отображения только активных версий.
+     * @param range Значение заголовка Range.
+     * @param userPrincipal Аутентифицированный пользователь.
+     * @return Поток с содержимым файла.
+     */
+    @Operation(summary = "Загрузка содержимого версии документа", description = "Возвращает файл версии документа в бинарном виде с поддержкой Range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Содержимое успешно получено"),
+            @ApiResponse(responseCode = "206", description = "Часть содержимого успешно получена"),
+            @ApiResponse(responseCode = "404", description = "Версия документа не найдена"),
+            @ApiResponse(responseCode = "416", description = "Запрошенный диапазон недоступен")
+    })
+    @GetMapping("/{documentId}/{versionId}/content")
+    public ResponseEntity<StreamingResponseBody> getDocumentVersionContent(
+            @PathVariable Long documentId,
+            @PathVariable Long versionId,
+            @RequestParam(defaultValue = "true") Boolean isAlive,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        DocumentContentResponse content = documentService.getDocumentVersionContent(documentId, versionId, isAlive, range, userPrincipal);
+
+        try {
+            ResponseEntity.BodyBuilder response = content.isPartial()
+                    ? ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                            .header(HttpHeaders.CONTENT_RANGE, "bytes " + content.getRangeStart() + "-" + content.getRangeEnd() + "/" + content.getTotalLength())
+                    : ResponseEntity.ok();
+            if (content.getEtag() != null) {
+                response.eTag(content.getEtag());
+            }
+            return response
+                    .contentType(MediaType.parseMediaType(content.getContentType() != null ? content.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE))
+                    .contentLength(content.getContentLength())
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                            .filename(content.getFilename(), StandardCharsets.UTF_8)
+                            .build()
+                            .toString())
+                    .body(outputStream -> {
+                        try (InputStream inputStream = content.getContent()) {
+                            inputStream.transferTo(outputStream);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            // Поток еще не передан в ответ, поэтому соединение с MinIO закрывается здесь.
+            try {
+                content.getContent().close();
+            } catch (IOException ignored) {
+                // соединение уже закрыто
+            }
+            throw e;
+        }
+    }
+
     /**
      * Обновляет существующий документ.
      *
@@ -122,6 +281,61 @@ public class DocumentController {
         return ResponseEntity.ok(documentService.updateDocumentVersion(id, document));
     }
 
+    /**
+     * Создает новую версию документа из multipart-запроса.
+     *
+     * @param id Идентификатор документа, который нужно обновить.
+     * @param document Часть запроса с данными новой версии.
+     * @param file Часть запроса с содержимым файла.
+     * @return Ответ с обновленной версией документа.
+     */
+    @Operation(summary = "Обновление документа с файлом", description = "Создает новую версию документа, содержимое передается частью multipart/form-data")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Документ успешно обновлен"),
+            @ApiResponse(responseCode = "404", description = "Документ не найден"),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос")
+    })
+    @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CreateDocumentVersionResponse> updateDocumentMultipart(
+            @PathVariable Long id,
+            @Valid @RequestPart("document") CreateDocumentVersionRequest document,
+            @RequestPart("file") MultipartFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return ResponseEntity.ok(documentService.updateDocumentVersion(id, document, toUploadedContent(file, inputStream)));
+        }
+    }
+
+    /**
+     * Создает новую версию документа из тела запроса в бинарном виде.
+     * Заголовок, описание и атрибуты копируются из последней версии.
+     *
+     * @param id Идентификатор документа.
+     * @param filename Имя файла новой версии; если не указано, сохраняется имя файла последней версии.
+     * @param contentType MIME-тип содержимого.
+     * @param contentLength Размер содержимого, если он известен.
+     * @param content Тело запроса.
+     * @return Ответ с новой версией документа.
+     */
+    @Operation(summary = "Загрузка содержимого документа", description = "Создает новую версию документа из тела запроса application/octet-stream")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Содержимое успешно загружено"),
+            @ApiResponse(responseCode = "404", description = "Документ не найден")
+    })
+    @PutMapping(value = "/{id}/content", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<CreateDocumentVersionResponse> uploadDocumentContent(
+            @PathVariable Long id,
+            @RequestParam(required = false) String filename,
+            @RequestParam(required = false) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream content) {
+        return ResponseEntity.ok(documentService.uploadDocumentVersionContent(id,
+                new UploadedContent(filename, contentType, contentLength != null ? contentLength : -1, content)));
+    }
+
+    private UploadedContent toUploadedContent(MultipartFile file, InputStream inputStream) {
+        return new UploadedContent(file.getOriginalFilename(), file.getContentType(), file.getSize(), inputStream);
+    }
+
     /**
      * Удаляет документ по его ID.
      *
@@ -158,7 +372,14 @@ public class DocumentController {
 
     /**
      * Возвращает список всех документов с возможностью пагинации и фильтрации.
+     * По умолчанию содержимое файлов не загружается: версии содержат только ключ объекта, MIME-тип и размер.
+     * По умолчанию используется постраничная выборка со смещением и сортировкой по дате последней версии.
+     * Если передан параметр cursor, используется пагинация по курсору: документы сортируются по дате создания,
+     * а курсор следующей страницы возвращается в заголовке X-Next-Cursor. Пустой cursor запрашивает первую страницу.
      *
+     * @param page Номер страницы для выборки со смещением.
+     * @param cursor Курсор страницы из заголовка X-Next-Cursor предыдущего ответа или пустая строка для первой страницы.
+     * @param content Режим загрузки содержимого версий (NONE, LATEST, ALL).
      * @return Страница с документами.
      */
     @Operation(summary = "Получение списка документов", description = "Возвращает список всех документов с пагинацией")
@@ -171,11 +392,21 @@ public class DocumentController {
     public ResponseEntity<List<CreateDocumentResponse>> getAllDocuments(
             @RequestParam(defaultValue = "true") Boolean isAlive,
             @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "false") boolean ascending,
             @RequestParam(defaultValue = "false") boolean showDraft,
+            @RequestParam(defaultValue = "NONE") ContentMode content,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        return ResponseEntity.ok(documentService.getAllDocuments(page, size, ascending, isAlive,userPrincipal, showDraft));
+        if (cursor == null) {
+            return ResponseEntity.ok(documentService.getAllDocuments(page, size, ascending, isAlive, userPrincipal, showDraft, content));
+        }
+        CursorPage<CreateDocumentResponse> documents = documentService.getDocumentsPage(cursor, size, ascending, isAlive, userPrincipal, showDraft, content);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (documents.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, documents.getNextCursor());
+        }
+        return response.body(documents.getItems());
     }
 
     @GetMapping("/countDocuments")
@@ -0,0 +1,42 @@
+package com.example.ecm.controller;
+
+import com.example.ecm.aop.Loggable;
+import com.example.ecm.dto.responses.KafkaSendStatisticsResponse;
+import com.example.ecm.kafka.service.KafkaSendMetrics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Контроллер для наблюдения за отправкой событий в Kafka.
+ */
+@RestController
+@RequestMapping("/kafka")
+@RequiredArgsConstructor
+@Loggable
+public class KafkaController {
+
+    private final KafkaSendMetrics kafkaSendMetrics;
+
+    /**
+     * GET-метод для получения статистики отправки событий.
+     *
+     * @return Количество отправленных и отклоненных сообщений, задержка подтверждения и показатели пакетирования.
+     */
+    @Operation(summary = "Статистика отправки событий", description = "Возвращает количество подтвержденных и отклоненных сообщений, задержку подтверждения, средний размер пакета и степень сжатия продюсера")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Статистика успешно получена"),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен")
+    })
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/statistics")
+    public ResponseEntity<KafkaSendStatisticsResponse> getStatistics() {
+        return ResponseEntity.ok(kafkaSendMetrics.getStatistics());
+    }
+}
@@ -4,6 +4,7 @@ import com.example.ecm.aop.Loggable;
 import com.example.ecm.dto.patch_requests.PatchUserRequest;
 import com.example.ecm.dto.requests.CreateUserRequest;
 import com.example.ecm.dto.responses.CreateUserResponse;
+import com.example.ecm.dto.responses.CursorPage;
 import com.example.ecm.dto.requests.PutRoleRequest;
 import com.example.ecm.security.UserPrincipal;
 import com.example.ecm.service.UserService;
@@ -61,16 +62,29 @@ public class UserController {
 
     /**
      * Получение списка всех пользователей с возвратом данных в виде DTO.
+     * Если передан cursor или size, используется пагинация по курсору: курсор следующей страницы
+     * возвращается в заголовке X-Next-Cursor. Пустой cursor запрашивает первую страницу.
      *
      * @param isAlive Параметр для фильтрации пользователей по статусу (по умолчанию true).
-     * @return Список DTO с данными всех пользователей.
+     * @param cursor Курсор страницы из заголовка X-Next-Cursor предыдущего ответа или пустая строка для первой страницы.
+     * @param size Размер страницы (по умолчанию 100, если передан только cursor).
+     * @return Список DTO с данными всех пользователей или пользователей на странице.
      */
-    @Operation(summary = "Получить всех пользователей", description = "Возвращает список всех пользователей.")
+    @Operation(summary = "Получить всех пользователей", description = "Возвращает список всех пользователей или страницу пользователей с пагинацией по курсору.")
     @ApiResponse(responseCode = "200", description = "Список пользователей успешно возвращен")
     @GetMapping
-    public ResponseEntity<List<CreateUserResponse>> getAllUsers(@RequestParam(defaultValue = "true") Boolean isAlive) {
-        List<CreateUserResponse> users = userService.getAllUsers(isAlive);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<CreateUserResponse>> getAllUsers(@RequestParam(defaultValue = "true") Boolean isAlive,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size) {
+        if (cursor == null && size == null) {
+            return ResponseEntity.ok(userService.getAllUsers(isAlive));
+        }
+        CursorPage<CreateUserResponse> users = userService.getAllUsers(isAlive, cursor, size != null ? size : CursorPage.DEFAULT_SIZE);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (users.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, users.getNextCursor());
+        }
+        return response.body(users.getItems());
     }
 
     /**
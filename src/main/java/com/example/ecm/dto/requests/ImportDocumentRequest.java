@@ -0,0 +1,31 @@
+package com.example.ecm.dto.requests;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * DTO для одной строки NDJSON-манифеста массового импорта документов.
+ * Содержит данные первой версии документа и имя части multipart-запроса с файлом.
+ */
+@Getter
+@Setter
+public class ImportDocumentRequest extends CreateDocumentRequest {
+
+    /**
+     * Идентификатор документа во внешней системе; повторный импорт с тем же идентификатором пропускается.
+     */
+    @NotBlank(message = "externalId cannot be blank")
+    private String externalId;
+
+    /**
+     * Имя части multipart-запроса, содержащей файл документа.
+     */
+    @NotBlank(message = "file cannot be blank")
+    private String file;
+
+    /**
+     * Создать документ как черновик.
+     */
+    private Boolean isDraft = false;
+}
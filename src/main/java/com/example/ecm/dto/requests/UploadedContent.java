@@ -0,0 +1,44 @@
+package com.example.ecm.dto.requests;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.InputStream;
+
+/**
+ * Загружаемое содержимое файла.
+ * Содержимое читается из потока один раз при сохранении в хранилище.
+ */
+@Getter
+@AllArgsConstructor
+public class UploadedContent {
+
+    /**
+     * Имя файла, может быть null
+     */
+    private final String filename;
+
+    /**
+     * MIME-тип содержимого
+     */
+    private final String contentType;
+
+    /**
+     * Размер содержимого в байтах или -1, если он неизвестен заранее
+     */
+    private final long size;
+
+    /**
+     * Поток с содержимым
+     */
+    private final InputStream content;
+
+    /**
+     * SHA-256 содержимого, если он известен до загрузки, иначе null
+     */
+    private final String checksum;
+
+    public UploadedContent(String filename, String contentType, long size, InputStream content) {
+        this(filename, contentType, size, content, null);
+    }
+}
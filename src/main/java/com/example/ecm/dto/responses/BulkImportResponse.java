@@ -0,0 +1,36 @@
+package com.example.ecm.dto.responses;
+
+import com.example.ecm.model.enums.ImportStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO для ответа на массовый импорт документов.
+ * Строки со статусом FAILED можно отправить повторно: уже импортированные документы будут пропущены.
+ */
+@Getter
+@Setter
+public class BulkImportResponse {
+
+    private long imported;
+    private long skipped;
+    private long failed;
+
+    /**
+     * Результаты по строкам манифеста в исходном порядке.
+     */
+    private List<ImportDocumentResult> items;
+
+    public BulkImportResponse(List<ImportDocumentResult> items) {
+        this.items = items;
+        this.imported = count(items, ImportStatus.IMPORTED);
+        this.skipped = count(items, ImportStatus.SKIPPED);
+        this.failed = count(items, ImportStatus.FAILED);
+    }
+
+    private static long count(List<ImportDocumentResult> items, ImportStatus status) {
+        return items.stream().filter(item -> item.getStatus() == status).count();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.ecm.dto.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * DTO со статистикой одного региона кэша второго уровня.
+ */
+@Getter
+@AllArgsConstructor
+public class CacheRegionStatisticsResponse {
+
+    private String region;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long putCount;
+
+    /**
+     * Доля попаданий от всех обращений к региону, от 0 до 1.
+     */
+    private double hitRatio;
+}
@@ -33,5 +33,25 @@ public class CreateDocumentVersionResponse {
 
     private String base64Content;
 
+    /**
+     * Ссылка для потоковой загрузки содержимого версии
+     */
+    private String contentUrl;
+
+    /**
+     * Ключ объекта с содержимым версии в хранилище
+     */
+    private String contentKey;
+
+    /**
+     * MIME-тип содержимого
+     */
+    private String contentType;
+
+    /**
+     * Размер содержимого в байтах
+     */
+    private Long contentSize;
+
     private List<GetSignatureResponse> signatures;
 }
@@ -0,0 +1,36 @@
+package com.example.ecm.dto.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Страница результатов постраничной выборки по курсору.
+ *
+ * @param <T> тип элементов страницы
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    /**
+     * Заголовок ответа, в котором передается курсор следующей страницы
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Размер страницы, если передан только курсор
+     */
+    public static final int DEFAULT_SIZE = 100;
+
+    /**
+     * Элементы страницы
+     */
+    private final List<T> items;
+
+    /**
+     * Курсор следующей страницы или null, если страница последняя
+     */
+    private final String nextCursor;
+}
@@ -0,0 +1,59 @@
+package com.example.ecm.dto.responses;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.InputStream;
+
+/**
+ * Содержимое версии документа для потоковой отдачи клиенту.
+ * Поток должен быть закрыт после передачи данных.
+ */
+@Getter
+@Setter
+public class DocumentContentResponse {
+
+    /**
+     * Поток с содержимым объекта из MinIO
+     */
+    private InputStream content;
+
+    /**
+     * Имя файла
+     */
+    private String filename;
+
+    /**
+     * MIME-тип содержимого
+     */
+    private String contentType;
+
+    /**
+     * Количество передаваемых байтов
+     */
+    private long contentLength;
+
+    /**
+     * ETag объекта в хранилище
+     */
+    private String etag;
+
+    /**
+     * Первый байт диапазона, null если передается весь объект
+     */
+    private Long rangeStart;
+
+    /**
+     * Последний байт диапазона, null если передается весь объект
+     */
+    private Long rangeEnd;
+
+    /**
+     * Полный размер объекта
+     */
+    private Long totalLength;
+
+    public boolean isPartial() {
+        return rangeStart != null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.ecm.dto.responses;
+
+import com.example.ecm.dto.requests.SetValueRequest;
+import com.example.ecm.model.enums.DocumentState;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO с метаданными версии документа в манифесте архива экспорта.
+ */
+@Getter
+@Setter
+public class ExportDocumentEntry {
+
+    private Long documentId;
+
+    private Long versionId;
+
+    private Long documentTypeId;
+
+    private DocumentState state;
+
+    private String externalId;
+
+    private String title;
+
+    private String description;
+
+    private LocalDateTime createdAt;
+
+    private String filename;
+
+    private String contentType;
+
+    private Long contentSize;
+
+    /**
+     * SHA-256 содержимого, если известен.
+     */
+    private String checksum;
+
+    /**
+     * Путь к файлу версии внутри архива.
+     */
+    private String path;
+
+    private List<SetValueRequest> values;
+
+    /**
+     * Ключ объекта в хранилище; в манифест не попадает.
+     */
+    @JsonIgnore
+    private String objectKey;
+}
@@ -0,0 +1,42 @@
+package com.example.ecm.dto.responses;
+
+import com.example.ecm.model.enums.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO с результатом импорта одной строки манифеста.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportDocumentResult {
+
+    /**
+     * Номер строки манифеста, начиная с 1.
+     */
+    private int line;
+
+    /**
+     * Идентификатор документа во внешней системе.
+     */
+    private String externalId;
+
+    /**
+     * Результат импорта.
+     */
+    private ImportStatus status;
+
+    /**
+     * Идентификатор созданного или ранее импортированного документа.
+     */
+    private Long documentId;
+
+    /**
+     * Причина ошибки для FAILED.
+     */
+    private String error;
+}
@@ -0,0 +1,38 @@
+package com.example.ecm.dto.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * DTO со статистикой отправки событий в Kafka.
+ */
+@Getter
+@AllArgsConstructor
+public class KafkaSendStatisticsResponse {
+
+    private long sentCount;
+
+    private long errorCount;
+
+    /**
+     * Среднее время от отправки до подтверждения брокером, мс.
+     */
+    private double averageLatencyMs;
+
+    private double maxLatencyMs;
+
+    /**
+     * Средний размер пакета продюсера, байт.
+     */
+    private double batchSizeAvg;
+
+    /**
+     * Среднее отношение размера сжатого пакета к исходному.
+     */
+    private double compressionRateAvg;
+
+    /**
+     * Среднее время ожидания сообщения в буфере продюсера, мс.
+     */
+    private double recordQueueTimeAvgMs;
+}
@@ -0,0 +1,7 @@
+package com.example.ecm.exception;
+
+public class RangeNotSatisfiableException extends RuntimeException {
+    public RangeNotSatisfiableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.ecm.kafka;
+
+import com.example.ecm.kafka.event.DocumentSignedEvent;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Конфигурация пакетного потребителя document_signed_events.
+ *
+ * <p>Слушатель получает пакет записей, сохраняет его одной вставкой и подтверждает смещения вручную.
+ * Запись, которую не удалось десериализовать или обработать после повторов, уходит в топик
+ * {@value #DEAD_LETTER_SUFFIX} с исходным содержимым, а обработка остального пакета продолжается.</p>
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    public static final String DEAD_LETTER_SUFFIX = ".DLT";
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapAddress;
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
+    /**
+     * Количество разделов топика; по одному потоку слушателя на раздел.
+     */
+    @Value("${kafka.document-signed-events.partitions:1}")
+    private int partitions;
+
+    /**
+     * Максимальный размер пакета, получаемого слушателем за один опрос.
+     */
+    @Value("${kafka.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
+    /**
+     * Количество повторов обработки записи перед отправкой в топик недоставленных сообщений.
+     */
+    @Value("${kafka.consumer.max-retries:2}")
+    private long maxRetries;
+
+    @Bean
+    public ConsumerFactory<String, DocumentSignedEvent> documentSignedEventsConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
+        config.put(JsonDeserializer.TRUSTED_PACKAGES, DocumentSignedEvent.class.getPackageName());
+        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, DocumentSignedEvent.class.getName());
+        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        return new DefaultKafkaConsumerFactory<>(config);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, DocumentSignedEvent> documentSignedEventsListenerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, DocumentSignedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(documentSignedEventsConsumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(partitions);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                new DeadLetterPublishingRecoverer(deadLetterTemplate()), new FixedBackOff(1000L, maxRetries)));
+        return factory;
+    }
+
+    /**
+     * Шаблон топика недоставленных сообщений: записи, не прошедшие десериализацию,
+     * публикуются исходными байтами, остальные - в JSON.
+     */
+    @Bean
+    public KafkaTemplate<Object, Object> deadLetterTemplate() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        Map<Class<?>, Serializer<?>> serializers = new LinkedHashMap<>();
+        serializers.put(byte[].class, new ByteArraySerializer());
+        serializers.put(Object.class, new JsonSerializer<>());
+        ProducerFactory<Object, Object> producerFactory = new DefaultKafkaProducerFactory<>(
+                config, new DelegatingByTypeSerializer(Map.of(String.class, new StringSerializer()), true),
+                new DelegatingByTypeSerializer(serializers, true));
+        return new KafkaTemplate<>(producerFactory);
+    }
+}
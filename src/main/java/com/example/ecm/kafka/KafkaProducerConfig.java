@@ -11,6 +11,7 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -20,12 +21,38 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapAddress; // или ваш адрес Kafka
 
+    /**
+     * Алгоритм сжатия пакетов: lz4 или zstd.
+     */
+    @Value("${kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    /**
+     * Время ожидания продюсером следующих сообщений перед отправкой неполного пакета.
+     */
+    @Value("${kafka.producer.linger:20ms}")
+    private Duration linger;
+
+    /**
+     * Максимальный размер пакета на раздел, байт.
+     */
+    @Value("${kafka.producer.batch-size:65536}")
+    private int batchSize;
+
     @Bean
     public ProducerFactory<String, DocumentSignedEvent> producerFactory() {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        // Повторные отправки пакета из outbox не создают дубликатов и не меняют порядок сообщений.
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        // Outbox отправляет события пакетами, поэтому короткое ожидание собирает их в крупные сжатые пакеты.
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, (int) linger.toMillis());
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
         return new DefaultKafkaProducerFactory<>(config);
     }
 
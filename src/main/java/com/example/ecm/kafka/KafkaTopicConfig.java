@@ -1,14 +1,41 @@
 package com.example.ecm.kafka;
 
+import com.example.ecm.kafka.service.EventProducerService;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
 
 @Configuration
 public class KafkaTopicConfig {
 
+    /**
+     * Количество разделов; события одного документа всегда попадают в один раздел.
+     * Увеличение применяется к существующему топику при запуске, уменьшение Kafka не поддерживает.
+     */
+    @Value("${kafka.document-signed-events.partitions:1}")
+    private int partitions;
+
+    @Value("${kafka.document-signed-events.replicas:1}")
+    private int replicas;
+
     @Bean
     public NewTopic createUserNotificationsTopic() {
-        return new NewTopic("document_signed_events", 1, (short) 1);
+        return TopicBuilder.name(EventProducerService.DOCUMENT_SIGNED_EVENTS_TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+
+    /**
+     * Топик недоставленных сообщений; запись публикуется в тот же раздел, из которого была прочитана.
+     */
+    @Bean
+    public NewTopic createDocumentSignedEventsDeadLetterTopic() {
+        return TopicBuilder.name(EventProducerService.DOCUMENT_SIGNED_EVENTS_TOPIC + KafkaConsumerConfig.DEAD_LETTER_SUFFIX)
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
     }
 }
@@ -2,12 +2,16 @@ package com.example.ecm.kafka.event;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @AllArgsConstructor
+@NoArgsConstructor
 @Getter
 @Setter
 public class DocumentSignedEvent {
+    /** Идентификатор документа; ключ сообщения, поэтому события одного документа попадают в один раздел */
+    private Long documentId;
     private Long documentVersionId;
     private Long userId;
     private Long signerId;
@@ -1,14 +1,52 @@
 package com.example.ecm.kafka.service;
 
-
+import com.example.ecm.kafka.event.DocumentSignedEvent;
+import com.example.ecm.service.SignatureAuditService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
+/**
+ * Потребитель событий подписания документов.
+ */
+@Slf4j
 @Service
+@RequiredArgsConstructor
 public class EventConsumerService {
 
-    @KafkaListener(topics = "document_signed_events", groupId = "default")
-    public void consumeMessage(String message) {
-        System.out.println(message); // test
+    private final SignatureAuditService signatureAuditService;
+
+    /**
+     * Записывает пакет событий в журнал подписаний и подтверждает смещения после фиксации транзакции.
+     * Если запись пакета не удалось десериализовать, записи перед ней сохраняются, а обработчик ошибок
+     * отправляет ее в топик недоставленных сообщений и повторно передает слушателю оставшуюся часть пакета.
+     *
+     * @param records        пакет записей
+     * @param acknowledgment подтверждение смещений пакета
+     */
+    @KafkaListener(topics = EventProducerService.DOCUMENT_SIGNED_EVENTS_TOPIC, containerFactory = "documentSignedEventsListenerFactory")
+    public void consumeMessages(List<ConsumerRecord<String, DocumentSignedEvent>> records, Acknowledgment acknowledgment) {
+        int failedIndex = indexOfUndeserialized(records);
+        int saved = signatureAuditService.record(failedIndex < 0 ? records : records.subList(0, failedIndex));
+        log.debug("Recorded {} of {} document signed events", saved, records.size());
+        if (failedIndex >= 0) {
+            throw new BatchListenerFailedException("Could not deserialize document signed event", failedIndex);
+        }
+        acknowledgment.acknowledge();
+    }
+
+    private int indexOfUndeserialized(List<ConsumerRecord<String, DocumentSignedEvent>> records) {
+        for (int i = 0; i < records.size(); i++) {
+            if (records.get(i).value() == null) {
+                return i;
+            }
+        }
+        return -1;
     }
 }
@@ -1,17 +1,41 @@
 package com.example.ecm.kafka.service;
 
+import com.example.ecm.exception.ServerException;
 import com.example.ecm.kafka.event.DocumentSignedEvent;
+import com.example.ecm.model.KafkaOutboxMessage;
+import com.example.ecm.repository.KafkaOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+/**
+ * Сервис публикации событий.
+ * События записываются в таблицу kafka_outbox в транзакции вызывающего кода
+ * и публикуются в Kafka {@link KafkaOutboxRelay}: событие не теряется при недоступности Kafka
+ * и не публикуется, если транзакция откатилась.
+ */
 @RequiredArgsConstructor
 @Service
 public class EventProducerService {
-    private final KafkaTemplate<String, DocumentSignedEvent> kafkaTemplate;
+    public static final String DOCUMENT_SIGNED_EVENTS_TOPIC = "document_signed_events";
 
+    private final KafkaOutboxRepository kafkaOutboxRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Записывает событие подписания с ключом по идентификатору документа:
+     * события одного документа попадают в один раздел и читаются в порядке записи.
+     */
     public void sendDocumentSignedEvent(DocumentSignedEvent event) {
-        String documentSignedEventTopic = "document_signed_events";
-        kafkaTemplate.send(documentSignedEventTopic, event);
+        kafkaOutboxRepository.save(new KafkaOutboxMessage(DOCUMENT_SIGNED_EVENTS_TOPIC, String.valueOf(event.getDocumentId()), toJson(event)));
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new ServerException("Could not serialize event " + event.getClass().getSimpleName());
+        }
     }
 }
@@ -0,0 +1,152 @@
+package com.example.ecm.kafka.service;
+
+import com.example.ecm.kafka.event.DocumentSignedEvent;
+import com.example.ecm.model.KafkaOutboxMessage;
+import com.example.ecm.repository.KafkaOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Публикует события из таблицы kafka_outbox в Kafka.
+ *
+ * <p>Пакет самых старых событий берется в аренду в короткой транзакции, отправляется в Kafka вне транзакции
+ * без ожидания каждого подтверждения и удаляется во второй короткой транзакции после подтверждения всего пакета.
+ * Поэтому ожидание Kafka не удерживает соединение с базой данных и блокировки строк. Если Kafka недоступна,
+ * аренда снимается и пакет будет отправлен повторно; дубликаты при повторной отправке внутри сессии
+ * продюсера исключает идемпотентный продюсер.</p>
+ *
+ * <p>Одновременно отправляется только один пакет: пакет выбирается под блокировкой
+ * {@code pg_try_advisory_xact_lock} и только если нет пакета с неистекшей арендой. Так события одного документа
+ * попадают в его раздел в порядке записи, даже если приложение запущено в нескольких экземплярах.
+ * Аренда должна быть длиннее {@code kafka.outbox.send-timeout}.</p>
+ *
+ * <p>Событие, которое нельзя прочитать, не удаляется: оно отмечается как непригодное и больше не выбирается.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KafkaOutboxRelay {
+
+    private final KafkaOutboxRepository kafkaOutboxRepository;
+    private final KafkaTemplate<String, DocumentSignedEvent> kafkaTemplate;
+    private final KafkaSendMetrics kafkaSendMetrics;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${kafka.outbox.batch-size:500}")
+    private int batchSize;
+
+    /** Максимальное время ожидания подтверждения пакета от Kafka */
+    @Value("${kafka.outbox.send-timeout:30s}")
+    private Duration sendTimeout;
+
+    /** Время, на которое пакет закрепляется за экземпляром приложения на время отправки */
+    @Value("${kafka.outbox.lease:2m}")
+    private Duration lease;
+
+    /**
+     * Публикует накопившиеся события, пока очередь не опустеет.
+     */
+    @Scheduled(fixedDelayString = "${kafka.outbox.poll-interval:1s}")
+    public void relay() {
+        try {
+            int published;
+            do {
+                published = publishBatch();
+            } while (published == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Could not publish outbox events, will retry: {}", e.getMessage());
+        }
+    }
+
+    int publishBatch() {
+        List<KafkaOutboxMessage> batch = claim();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, String> unreadable = new LinkedHashMap<>();
+        List<Long> published = new ArrayList<>(batch.size());
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        try {
+            for (KafkaOutboxMessage message : batch) {
+                DocumentSignedEvent event;
+                try {
+                    event = objectMapper.readValue(message.getPayload(), DocumentSignedEvent.class);
+                } catch (JsonProcessingException e) {
+                    unreadable.put(message.getId(), e.getOriginalMessage());
+                    continue;
+                }
+                long startedAt = System.nanoTime();
+                sends.add(kafkaTemplate.send(message.getTopic(), message.getMessageKey(), event)
+                        .whenComplete((result, error) -> kafkaSendMetrics.record(startedAt, error)));
+                published.add(message.getId());
+            }
+            kafkaTemplate.flush();
+            await(CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)));
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status ->
+                    kafkaOutboxRepository.release(batch.stream().map(KafkaOutboxMessage::getId).toList()));
+            throw e;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!published.isEmpty()) {
+                kafkaOutboxRepository.deleteByIds(published);
+            }
+            unreadable.forEach((id, error) -> kafkaOutboxRepository.markFailed(id, now, error));
+        });
+        unreadable.keySet().forEach(id -> log.error("Outbox event {} is unreadable and was marked failed", id));
+        return batch.size();
+    }
+
+    /**
+     * Берет в аренду самые старые события, если другой пакет сейчас не отправляется.
+     */
+    private List<KafkaOutboxMessage> claim() {
+        List<KafkaOutboxMessage> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (!kafkaOutboxRepository.tryLockRelay() || kafkaOutboxRepository.existsLeased(now)) {
+                return List.of();
+            }
+            List<KafkaOutboxMessage> messages = kafkaOutboxRepository.findBatch(batchSize);
+            if (!messages.isEmpty()) {
+                kafkaOutboxRepository.lease(messages.stream().map(KafkaOutboxMessage::getId).toList(), now.plus(lease));
+            }
+            return messages;
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    private void await(CompletableFuture<Void> sends) {
+        try {
+            sends.get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Kafka rejected outbox batch: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Kafka did not acknowledge outbox batch in " + sendTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing outbox batch");
+        }
+    }
+}
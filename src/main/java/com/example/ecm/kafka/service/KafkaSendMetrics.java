@@ -0,0 +1,82 @@
+package com.example.ecm.kafka.service;
+
+import com.example.ecm.dto.responses.KafkaSendStatisticsResponse;
+import com.example.ecm.kafka.event.DocumentSignedEvent;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики отправки событий в Kafka: количество подтвержденных и отклоненных сообщений
+ * и время от передачи сообщения продюсеру до подтверждения брокером.
+ */
+@Component
+@RequiredArgsConstructor
+public class KafkaSendMetrics {
+
+    private static final String PRODUCER_METRICS_GROUP = "producer-metrics";
+
+    private final KafkaTemplate<String, DocumentSignedEvent> kafkaTemplate;
+
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    /**
+     * Учитывает результат отправки одного сообщения.
+     *
+     * @param startedAt значение {@link System#nanoTime()} в момент отправки
+     * @param error     ошибка отправки или null, если брокер подтвердил сообщение
+     */
+    public void record(long startedAt, Throwable error) {
+        if (error != null) {
+            errorCount.increment();
+            return;
+        }
+        long latency = System.nanoTime() - startedAt;
+        sentCount.increment();
+        totalLatencyNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * Возвращает счетчики отправки и показатели пакетирования и сжатия продюсера.
+     *
+     * @return статистика отправки
+     */
+    public KafkaSendStatisticsResponse getStatistics() {
+        long sent = sentCount.sum();
+        Map<MetricName, ? extends Metric> metrics = kafkaTemplate.metrics();
+        return new KafkaSendStatisticsResponse(
+                sent,
+                errorCount.sum(),
+                sent == 0 ? 0 : toMillis(totalLatencyNanos.sum()) / sent,
+                toMillis(maxLatencyNanos.get()),
+                producerMetric(metrics, "batch-size-avg"),
+                producerMetric(metrics, "compression-rate-avg"),
+                producerMetric(metrics, "record-queue-time-avg"));
+    }
+
+    private double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private double producerMetric(Map<MetricName, ? extends Metric> metrics, String name) {
+        return metrics.entrySet().stream()
+                .filter(entry -> entry.getKey().group().equals(PRODUCER_METRICS_GROUP) && entry.getKey().name().equals(name))
+                .map(entry -> entry.getValue().metricValue())
+                .filter(value -> value instanceof Number)
+                .mapToDouble(value -> ((Number) value).doubleValue())
+                .filter(Double::isFinite)
+                .findFirst()
+                .orElse(0);
+    }
+}
@@ -29,6 +29,12 @@ public class DocumentVersionMapper {
         response.setId(documentVersion.getId());
         response.setVersionId(documentVersion.getVersionId());
         response.setCreatedAt(documentVersion.getCreatedAt());
+        if (documentVersion.getDocument() != null) {
+            response.setContentUrl("/documents/" + documentVersion.getDocument().getId() + "/" + documentVersion.getVersionId() + "/content");
+        }
+        response.setContentKey(documentVersion.getObjectKey());
+        response.setContentType(documentVersion.getContentType());
+        response.setContentSize(documentVersion.getContentSize());
         response.setSignatures(documentVersion.getSignatures().stream()
                 .map(signatureMapper::toGetSignatureResponse)
                 .toList());
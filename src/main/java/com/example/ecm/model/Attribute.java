@@ -5,7 +5,11 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.CreationTimestamp;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,6 +19,7 @@ import java.util.List;
  */
 @Entity
 @Table(name="attributes")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "attributes")
 @Getter
 @Setter
 public class Attribute {
@@ -26,6 +31,7 @@ public class Attribute {
 
     /** Тип документа, к которому относится атрибут */
     @JsonBackReference
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "attributes.document_types")
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "document_types_attributes",
@@ -42,4 +48,9 @@ public class Attribute {
     private Boolean required;
 
     private Boolean isAlive = true;
+
+    /** Дата создания, используется для постраничной выборки по курсору */
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
 }
@@ -0,0 +1,45 @@
+package com.example.ecm.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Класс-сущность, представляющий содержимое файла в MinIO, адресуемое по SHA-256.
+ * Одинаковое содержимое хранится один раз, а версии документов ссылаются на него по ключу объекта.
+ */
+@Entity
+@Table(name = "content_blob")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ContentBlob {
+
+    /** SHA-256 содержимого в шестнадцатеричном виде */
+    @Id
+    @Column(name = "checksum", length = 64)
+    private String checksum;
+
+    /** Ключ объекта в MinIO */
+    @Column(name = "object_key", nullable = false)
+    private String objectKey;
+
+    /** MIME-тип содержимого */
+    @Column(name = "content_type")
+    private String contentType;
+
+    /** Размер содержимого в байтах */
+    @Column(name = "content_size", nullable = false)
+    private Long contentSize;
+
+    /** Количество версий документов, ссылающихся на содержимое */
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    /** Дата загрузки содержимого */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
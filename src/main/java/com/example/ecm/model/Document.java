@@ -4,7 +4,9 @@ import com.example.ecm.model.enums.DocumentState;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,7 +21,8 @@ import java.util.List;
 public class Document {
     /** Уникальный идентификатор документа */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "documents_id_seq")
+    @SequenceGenerator(name = "documents_id_seq", sequenceName = "documents_id_seq", allocationSize = 50)
     private Long id;
 
     /** Пользователь, который создал документ */
@@ -36,6 +39,11 @@ public class Document {
     @OneToMany(mappedBy = "document", fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.REFRESH, CascadeType.REMOVE})
     private List<DocumentVersion> documentVersions = new ArrayList<>();
 
+    /** Последняя версия документа, обновляется в той же транзакции, что и создание версии */
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "latest_version_id")
+    private DocumentVersion latestVersion;
+
     @OneToMany(mappedBy = "document", fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.REFRESH, CascadeType.REMOVE})
     private List<Comment> comments = new ArrayList<>();
 
@@ -43,4 +51,13 @@ public class Document {
     private DocumentState state = DocumentState.CREATED;
 
     private Boolean isAlive = true;
+
+    /** Идентификатор документа во внешней системе, из которой он был импортирован */
+    @Column(name = "external_id", unique = true)
+    private String externalId;
+
+    /** Дата создания, используется для постраничной выборки по курсору */
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
 }
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,8 +13,10 @@ import java.util.List;
 /**
  * Сущность, представляющая тип документа.
  * Используется для классификации документов по их типам.
+ * Хранится в кэше второго уровня: типы документов меняются редко, а читаются при каждой операции с документом.
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "document_types")
 @Table(name = "document_types")
 @Getter
 @Setter
@@ -38,6 +42,7 @@ public class DocumentType {
      * Используется для хранения характеристик, которые могут быть применены к документам данного типа.
      */
     @JsonManagedReference
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "document_types.attributes")
     @ManyToMany(fetch = FetchType.LAZY, cascade = { CascadeType.PERSIST, CascadeType.REFRESH})
     @JoinTable(
             name = "document_types_attributes",
@@ -23,7 +23,8 @@ import java.util.Map;
 public class DocumentVersion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "document_version_id_seq")
+    @SequenceGenerator(name = "document_version_id_seq", sequenceName = "document_version_id_seq", allocationSize = 50)
     /** Уникальный идентификатор, нужен для того, чтобы не использовать составной первичный ключ */
     private Long id;
     private Long versionId;
@@ -41,6 +42,22 @@ public class DocumentVersion {
     @Column(name = "filename")
     private String filename;
 
+    /** Ключ объекта с содержимым в MinIO */
+    @Column(name = "object_key")
+    private String objectKey;
+
+    /** MIME-тип содержимого файла */
+    @Column(name = "content_type")
+    private String contentType;
+
+    /** Размер содержимого файла в байтах */
+    @Column(name = "content_size")
+    private Long contentSize;
+
+    /** SHA-256 содержимого файла в шестнадцатеричном виде */
+    @Column(name = "content_checksum")
+    private String checksum;
+
     /** Описание документа */
     @Column
     private String description;
@@ -62,4 +79,14 @@ public class DocumentVersion {
     private List<Signature> signatures = new ArrayList<>();
 
     private Boolean isAlive = true;
+
+    /**
+     * Ключ объекта с содержимым версии в MinIO.
+     * Для версий, загруженных до хранения содержимого по SHA-256, ключ не сохранен и строится по старой схеме.
+     *
+     * @return ключ объекта blobs/{sha256} или {id}_{filename}
+     */
+    public String getObjectKey() {
+        return objectKey != null ? objectKey : id + "_" + filename;
+    }
 }
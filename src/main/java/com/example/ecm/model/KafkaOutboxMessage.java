@@ -0,0 +1,59 @@
+package com.example.ecm.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Класс-сущность, представляющий событие, ожидающее публикации в Kafka.
+ * Событие сохраняется в транзакции изменения, которое оно описывает, и удаляется после публикации.
+ * Событие, которое нельзя прочитать, остается в таблице с отметкой failed_at и причиной ошибки.
+ */
+@Entity
+@Table(name = "kafka_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+public class KafkaOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "kafka_outbox_id_seq")
+    @SequenceGenerator(name = "kafka_outbox_id_seq", sequenceName = "kafka_outbox_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    /** Ключ сообщения Kafka */
+    @Column(name = "message_key")
+    private String messageKey;
+
+    /** Событие в формате JSON */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    /** Срок аренды события отправляющим экземпляром приложения */
+    @Column(name = "leased_until")
+    private LocalDateTime leasedUntil;
+
+    /** Время, когда событие признано непригодным для публикации */
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public KafkaOutboxMessage(String topic, String messageKey, String payload) {
+        this.topic = topic;
+        this.messageKey = messageKey;
+        this.payload = payload;
+    }
+}
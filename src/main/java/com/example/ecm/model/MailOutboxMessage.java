@@ -0,0 +1,68 @@
+package com.example.ecm.model;
+
+import com.example.ecm.model.enums.MailStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Класс-сущность, представляющий письмо в очереди отправки.
+ * Письма сохраняются в той же транзакции, что и изменения, о которых они уведомляют,
+ * а отправляются фоновым воркером.
+ */
+@Entity
+@Table(name = "mail_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+public class MailOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mail_outbox_id_seq")
+    @SequenceGenerator(name = "mail_outbox_id_seq", sequenceName = "mail_outbox_id_seq", allocationSize = 50)
+    private Long id;
+
+    /** Адрес получателя */
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MailStatus status = MailStatus.PENDING;
+
+    /** Количество неудачных попыток отправки */
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    /** Время, раньше которого письмо не отправляется */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /** Ошибка последней неудачной попытки */
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public MailOutboxMessage(String recipient, String subject, String body) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.nextAttemptAt = LocalDateTime.now();
+    }
+}
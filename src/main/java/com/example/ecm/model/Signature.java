@@ -15,7 +15,8 @@ public class Signature {
 
     /** Уникальный идентификатор документа */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "signatures_id_seq")
+    @SequenceGenerator(name = "signatures_id_seq", sequenceName = "signatures_id_seq", allocationSize = 50)
     private Long id;
 
     /** Подпись, хранящаяся в виде хэша */
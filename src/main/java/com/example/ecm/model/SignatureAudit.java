@@ -0,0 +1,57 @@
+package com.example.ecm.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Класс-сущность, представляющий запись журнала подписаний, построенного по событиям document_signed_events.
+ * Топик, раздел и смещение сообщения Kafka уникальны, поэтому повторно доставленное событие
+ * не записывается дважды. Записи добавляются только пакетной вставкой {@code SignatureAuditService}.
+ */
+@Entity
+@Table(name = "signature_audit")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SignatureAudit {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "signature_audit_id_seq")
+    @SequenceGenerator(name = "signature_audit_id_seq", sequenceName = "signature_audit_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "document_id")
+    private Long documentId;
+
+    @Column(name = "document_version_id")
+    private Long documentVersionId;
+
+    /** Пользователь, выполнивший подписание */
+    @Column(name = "user_id")
+    private Long userId;
+
+    /** Подписант по запросу на подпись */
+    @Column(name = "signer_id")
+    private Long signerId;
+
+    @Column(name = "placeholder_title")
+    private String placeholderTitle;
+
+    @Column(name = "topic", nullable = false)
+    private String topic;
+
+    @Column(name = "kafka_partition", nullable = false)
+    private Integer kafkaPartition;
+
+    @Column(name = "kafka_offset", nullable = false)
+    private Long kafkaOffset;
+
+    @CreationTimestamp
+    @Column(name = "received_at", nullable = false, updatable = false)
+    private LocalDateTime receivedAt;
+}
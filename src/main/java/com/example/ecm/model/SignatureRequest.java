@@ -11,7 +11,8 @@ import lombok.Setter;
 @Setter
 public class SignatureRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "signature_requests_id_seq")
+    @SequenceGenerator(name = "signature_requests_id_seq", sequenceName = "signature_requests_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
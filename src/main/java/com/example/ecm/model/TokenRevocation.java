@@ -0,0 +1,33 @@
+package com.example.ecm.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Класс-сущность, представляющий отзыв токенов пользователя.
+ * Каждый отзыв увеличивает поколение токенов пользователя; токены более раннего поколения недействительны.
+ */
+@Entity
+@Table(name = "token_revocations")
+@Getter
+@Setter
+@NoArgsConstructor
+public class TokenRevocation {
+
+    /** Идентификатор пользователя */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /** Момент последнего отзыва; по нему экземпляры приложения читают новые отзывы */
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    /** Поколение токенов пользователя: токены с меньшим поколением отозваны */
+    @Column(name = "generation", nullable = false)
+    private Long generation;
+}
@@ -5,8 +5,10 @@ import jakarta.persistence.*;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.proxy.HibernateProxy;
 
+import java.time.LocalDateTime;
 import java.util.Objects;
 import java.util.Set;
 
@@ -65,6 +67,11 @@ public class User {
 
     private Boolean isAlive = true;
 
+    /** Дата создания, используется для постраничной выборки по курсору */
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) return true;
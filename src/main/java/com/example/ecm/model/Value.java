@@ -11,7 +11,8 @@ import lombok.Setter;
 @Setter
 public class Value {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "values_id_seq")
+    @SequenceGenerator(name = "values_id_seq", sequenceName = "values_id_seq", allocationSize = 50)
     private Long id;
   
     @ManyToOne
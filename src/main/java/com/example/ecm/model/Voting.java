@@ -14,7 +14,8 @@ import java.util.List;
 public class Voting {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "votings_id_seq")
+    @SequenceGenerator(name = "votings_id_seq", sequenceName = "votings_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -30,8 +31,20 @@ public class Voting {
     @Column(nullable = false)
     private Float approvalThreshold;
 
+    /**
+     * Доля одобривших от всех участников, в процентах от 0 до 100.
+     */
     private Float currentApprovalRate;
 
+    @Column(nullable = false)
+    private Integer participantCount = 0;
+
+    @Column(nullable = false)
+    private Integer approvedCount = 0;
+
+    @Column(nullable = false)
+    private Integer rejectedCount = 0;
+
     @Column(nullable = false)
     private LocalDate createdAt;
 
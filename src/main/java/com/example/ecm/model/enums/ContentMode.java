@@ -0,0 +1,13 @@
+package com.example.ecm.model.enums;
+
+/**
+ * Режим загрузки содержимого версий документа в ответах API.
+ */
+public enum ContentMode {
+    /** Только метаданные: ключ объекта, MIME-тип и размер */
+    NONE,
+    /** Содержимое только последней версии */
+    LATEST,
+    /** Содержимое всех версий */
+    ALL,
+}
@@ -0,0 +1,13 @@
+package com.example.ecm.model.enums;
+
+/**
+ * Результат импорта одного документа.
+ */
+public enum ImportStatus {
+    /** Документ создан */
+    IMPORTED,
+    /** Документ с таким внешним идентификатором уже был импортирован ранее */
+    SKIPPED,
+    /** Документ не импортирован, причина указана в ответе */
+    FAILED,
+}
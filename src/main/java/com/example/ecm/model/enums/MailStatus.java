@@ -0,0 +1,13 @@
+package com.example.ecm.model.enums;
+
+/**
+ * Состояние письма в очереди отправки.
+ */
+public enum MailStatus {
+    /** Письмо ожидает отправки или повторной попытки */
+    PENDING,
+    /** Письмо отправлено */
+    SENT,
+    /** Исчерпаны попытки отправки */
+    FAILED,
+}
@@ -1,9 +1,14 @@
 package com.example.ecm.repository;
 
 import com.example.ecm.model.Attribute;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,8 +18,10 @@ import java.util.Optional;
  * такие как создание, чтение, обновление и удаление (CRUD) атрибутов документов.
  */
 @Repository
-public interface AttributeRepository extends JpaRepository<Attribute, Long> {
+public interface AttributeRepository extends JpaRepository<Attribute, Long>, JpaSpecificationExecutor<Attribute> {
     Optional<Attribute> findByName(String name);
+    List<Attribute> findByNameIn(Collection<String> names);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Attribute> findAttributesByIdIsIn(List<Long> ids);
     Boolean existsByName(String name);
 }
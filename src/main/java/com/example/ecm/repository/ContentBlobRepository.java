@@ -0,0 +1,44 @@
+package com.example.ecm.repository;
+
+import com.example.ecm.model.ContentBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Репозиторий для содержимого файлов, адресуемого по SHA-256.
+ * Счетчик ссылок изменяется атомарными запросами, чтобы параллельные загрузки
+ * одинакового содержимого не теряли ссылки.
+ */
+@Repository
+public interface ContentBlobRepository extends JpaRepository<ContentBlob, String> {
+
+    @Modifying
+    @Query("UPDATE ContentBlob b SET b.refCount = b.refCount + 1 WHERE b.checksum = :checksum")
+    int incrementRefCount(String checksum);
+
+    @Modifying
+    @Query("UPDATE ContentBlob b SET b.refCount = b.refCount - 1 WHERE b.checksum = :checksum")
+    int decrementRefCount(String checksum);
+
+    /**
+     * Добавляет содержимое с одной ссылкой или увеличивает счетчик ссылок, если оно уже есть.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO content_blob (checksum, object_key, content_type, content_size, ref_count, created_at) " +
+            "VALUES (:checksum, :objectKey, :contentType, :contentSize, 1, now()) " +
+            "ON CONFLICT (checksum) DO UPDATE SET ref_count = content_blob.ref_count + 1", nativeQuery = true)
+    void insertOrIncrementRefCount(String checksum, String objectKey, String contentType, long contentSize);
+
+    /**
+     * Блокирует SHA-256 до конца транзакции. Создание содержимого и удаление объекта из MinIO
+     * выполняются под этой блокировкой, чтобы удаление не затронуло содержимое, загруженное заново.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext(:checksum))", nativeQuery = true)
+    Integer lockChecksum(String checksum);
+
+    @Modifying
+    @Query("DELETE FROM ContentBlob b WHERE b.checksum = :checksum AND b.refCount <= 0")
+    int deleteIfUnreferenced(String checksum);
+}
@@ -2,16 +2,33 @@ package com.example.ecm.repository;
 
 import com.example.ecm.model.Document;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Репозиторий для работы с сущностями Document.
  * Предоставляет стандартные методы для взаимодействия с базой данных,
  * такие как создание, чтение, обновление и удаление (CRUD) документов.
  */
 @Repository
-public interface DocumentRepository extends JpaRepository<Document, Long> {
+public interface DocumentRepository extends JpaRepository<Document, Long>, JpaSpecificationExecutor<Document> {
+
+    /**
+     * Возвращает идентификаторы документов из переданного набора, которые доступны пользователю:
+     * пользователь является автором документа или получателем запроса на подпись любой из его версий.
+     */
+    @Query("SELECT d.id FROM Document d WHERE d.id IN :ids AND (d.user.id = :userId OR EXISTS " +
+            "(SELECT 1 FROM SignatureRequest sr WHERE sr.userTo.id = :userId AND sr.documentVersion.document.id = d.id))")
+    Set<Long> findVisibleDocumentIds(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
 
-    //@Query("SELECT d FROM Document d LEFT JOIN SignatureRequest sr ON d.id = sr.document.id WHERE d.user.id = ?1 OR sr.userTo.id = ?1")
-    //List<Document> findDocumentsBySignature(Long userId);
+    /**
+     * Возвращает документы, ранее импортированные с указанными внешними идентификаторами.
+     */
+    List<Document> findByExternalIdIn(Collection<String> externalIds);
 }
@@ -0,0 +1,90 @@
+package com.example.ecm.repository;
+
+import com.example.ecm.model.Document;
+import com.example.ecm.model.DocumentVersion;
+import com.example.ecm.model.SignatureRequest;
+import com.example.ecm.model.enums.DocumentState;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Набор спецификаций для выборки документов.
+ * Все условия (активность, черновики, права доступа, сортировка по последней версии)
+ * транслируются в SQL и выполняются на стороне PostgreSQL вместе с LIMIT/OFFSET и COUNT.
+ */
+public final class DocumentSpecification {
+
+    private DocumentSpecification() {
+    }
+
+    /**
+     * Фильтр по признаку активности документа.
+     * Условие строится без параметра, чтобы планировщик мог использовать частичные индексы WHERE is_alive.
+     *
+     * @param isAlive true - только активные документы, false - только удаленные
+     */
+    public static Specification<Document> isAlive(boolean isAlive) {
+        return (root, query, cb) -> isAlive ? cb.isTrue(root.get("isAlive")) : cb.isFalse(root.get("isAlive"));
+    }
+
+    /**
+     * Фильтр по черновикам.
+     *
+     * @param showDraft true - только черновики, false - все, кроме черновиков, null - без фильтра
+     */
+    public static Specification<Document> showDraft(Boolean showDraft) {
+        if (showDraft == null) {
+            return null;
+        }
+        return (root, query, cb) -> showDraft
+                ? cb.equal(root.get("state"), DocumentState.DRAFT)
+                : cb.or(cb.isNull(root.get("state")), cb.notEqual(root.get("state"), DocumentState.DRAFT));
+    }
+
+    /**
+     * Документы, доступные пользователю: он автор документа или получатель
+     * запроса на подпись любой из версий документа.
+     *
+     * @param userId идентификатор пользователя
+     */
+    public static Specification<Document> visibleTo(Long userId) {
+        return (root, query, cb) -> {
+            Subquery<Long> requests = query.subquery(Long.class);
+            Root<SignatureRequest> request = requests.from(SignatureRequest.class);
+            requests.select(request.get("id"))
+                    .where(
+                            cb.equal(request.get("userTo").get("id"), userId),
+                            cb.equal(request.get("documentVersion").get("document").get("id"), root.get("id"))
+                    );
+            return cb.or(
+                    cb.equal(root.get("user").get("id"), userId),
+                    cb.exists(requests)
+            );
+        };
+    }
+
+    /**
+     * Оставляет только документы, у которых есть хотя бы одна версия,
+     * и сортирует их по дате создания последней версии.
+     * Последняя версия берется по указателю documents.latest_version_id, поэтому
+     * соединение выполняется по первичному ключу без агрегации по всем версиям.
+     * Для запроса подсчета сортировка не применяется.
+     *
+     * @param ascending порядок сортировки
+     */
+    public static Specification<Document> orderByLatestVersion(boolean ascending) {
+        return (root, query, cb) -> {
+            Join<Document, DocumentVersion> latest = root.join("latestVersion");
+
+            if (!Long.class.equals(query.getResultType())) {
+                query.orderBy(
+                        ascending ? cb.asc(latest.get("createdAt")) : cb.desc(latest.get("createdAt")),
+                        ascending ? cb.asc(root.get("id")) : cb.desc(root.get("id"))
+                );
+            }
+            return null;
+        };
+    }
+}
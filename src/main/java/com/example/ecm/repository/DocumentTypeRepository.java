@@ -1,7 +1,10 @@
 package com.example.ecm.repository;
 
 import com.example.ecm.model.DocumentType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,5 +16,6 @@ import java.util.Optional;
  */
 @Repository
 public interface DocumentTypeRepository extends JpaRepository<DocumentType, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<DocumentType> findDocumentTypesByIdIsIn(List<Long> ids);
 }
@@ -0,0 +1,64 @@
+package com.example.ecm.repository;
+
+import com.example.ecm.model.KafkaOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Репозиторий событий, ожидающих публикации в Kafka.
+ */
+@Repository
+public interface KafkaOutboxRepository extends JpaRepository<KafkaOutboxMessage, Long> {
+
+    /**
+     * Пытается захватить блокировку выбора пакета до конца транзакции.
+     * Пакеты выбирают по очереди, поэтому два экземпляра приложения не могут одновременно взять в аренду разные пакеты.
+     *
+     * @return true, если блокировка захвачена
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('kafka_outbox_relay'))", nativeQuery = true)
+    boolean tryLockRelay();
+
+    /**
+     * Проверяет, отправляет ли сейчас какой-либо экземпляр приложения пакет, аренда которого еще не истекла.
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM kafka_outbox WHERE leased_until > :now)", nativeQuery = true)
+    boolean existsLeased(LocalDateTime now);
+
+    /**
+     * Выбирает самые старые события в порядке записи. Идентификаторы выделяются экземплярам приложения
+     * блоками, поэтому порядок определяется временем записи, а идентификатор лишь упорядочивает события
+     * с одинаковым временем.
+     */
+    @Query(value = "SELECT * FROM kafka_outbox WHERE failed_at IS NULL ORDER BY created_at, id LIMIT :limit", nativeQuery = true)
+    List<KafkaOutboxMessage> findBatch(int limit);
+
+    /**
+     * Берет события в аренду на время отправки. Если экземпляр приложения остановится во время отправки,
+     * события будут отправлены повторно после этого срока.
+     */
+    @Modifying
+    @Query("UPDATE KafkaOutboxMessage m SET m.leasedUntil = :leaseUntil WHERE m.id IN :ids")
+    int lease(Collection<Long> ids, LocalDateTime leaseUntil);
+
+    /**
+     * Освобождает события, которые не удалось отправить, для следующей попытки.
+     */
+    @Modifying
+    @Query("UPDATE KafkaOutboxMessage m SET m.leasedUntil = null WHERE m.id IN :ids")
+    int release(Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE KafkaOutboxMessage m SET m.leasedUntil = null, m.failedAt = :failedAt, m.lastError = :lastError WHERE m.id = :id")
+    int markFailed(Long id, LocalDateTime failedAt, String lastError);
+
+    @Modifying
+    @Query("DELETE FROM KafkaOutboxMessage m WHERE m.id IN :ids")
+    int deleteByIds(Collection<Long> ids);
+}
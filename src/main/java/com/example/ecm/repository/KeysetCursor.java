@@ -0,0 +1,69 @@
+package com.example.ecm.repository;
+
+import com.example.ecm.exception.BadRequestException;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Непрозрачный курсор для постраничной выборки по ключу (created_at, id).
+ * В отличие от LIMIT/OFFSET, стоимость выборки страницы не зависит от ее номера,
+ * а вставка новых записей не сдвигает уже просмотренные страницы.
+ */
+public final class KeysetCursor {
+
+    private static final String CREATED_AT = "createdAt";
+    private static final String ID = "id";
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Стабильная сортировка по дате создания и идентификатору.
+     *
+     * @param ascending порядок сортировки
+     */
+    public static Sort sort(boolean ascending) {
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return Sort.by(direction, CREATED_AT, ID);
+    }
+
+    /**
+     * Кодирует позицию последней записи страницы в курсор.
+     *
+     * @param createdAt дата создания записи
+     * @param id        идентификатор записи
+     * @return курсор следующей страницы
+     */
+    public static String encode(LocalDateTime createdAt, Long id) {
+        String position = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Восстанавливает позицию из курсора.
+     *
+     * @param cursor курсор или null для первой страницы
+     * @return позиция, с которой продолжается выборка
+     * @throws BadRequestException если курсор имеет некорректный формат
+     */
+    public static ScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.lastIndexOf(SEPARATOR);
+            LocalDateTime createdAt = LocalDateTime.parse(position.substring(0, separator));
+            Long id = Long.parseLong(position.substring(separator + 1));
+            return ScrollPosition.forward(Map.of(CREATED_AT, createdAt, ID, id));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.ecm.repository;
+
+import com.example.ecm.model.MailOutboxMessage;
+import com.example.ecm.model.enums.MailStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Репозиторий очереди писем.
+ */
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutboxMessage, Long> {
+
+    /**
+     * Блокирует готовые к отправке письма. Строки, заблокированные другими экземплярами приложения, пропускаются.
+     */
+    @Query(value = "SELECT * FROM mail_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<MailOutboxMessage> lockPending(LocalDateTime now, int limit);
+
+    /**
+     * Откладывает письма на время отправки, чтобы их не взял другой воркер.
+     * Если экземпляр приложения остановится во время отправки, письма будут отправлены повторно после этого срока.
+     */
+    @Modifying
+    @Query("UPDATE MailOutboxMessage m SET m.nextAttemptAt = :leaseUntil WHERE m.id IN :ids")
+    int lease(Collection<Long> ids, LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE MailOutboxMessage m SET m.status = :status, m.sentAt = :sentAt WHERE m.id IN :ids")
+    int markSent(Collection<Long> ids, MailStatus status, LocalDateTime sentAt);
+
+    /**
+     * Удаляет пачку писем, отправленных раньше указанного времени.
+     *
+     * @return количество удаленных писем
+     */
+    @Modifying
+    @Query(value = "DELETE FROM mail_outbox WHERE id IN (SELECT id FROM mail_outbox " +
+            "WHERE status = 'SENT' AND sent_at < :before LIMIT :limit)", nativeQuery = true)
+    int deleteSentBefore(LocalDateTime before, int limit);
+
+    @Modifying
+    @Query("UPDATE MailOutboxMessage m SET m.status = :status, m.attempts = :attempts, " +
+            "m.nextAttemptAt = :nextAttemptAt, m.lastError = :lastError WHERE m.id = :id")
+    int markFailed(Long id, MailStatus status, int attempts, LocalDateTime nextAttemptAt, String lastError);
+}
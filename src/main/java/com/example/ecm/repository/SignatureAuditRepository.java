@@ -0,0 +1,12 @@
+package com.example.ecm.repository;
+
+import com.example.ecm.model.SignatureAudit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Репозиторий журнала подписаний.
+ */
+@Repository
+public interface SignatureAuditRepository extends JpaRepository<SignatureAudit, Long> {
+}
@@ -0,0 +1,28 @@
+package com.example.ecm.repository;
+
+import com.example.ecm.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Репозиторий для отзывов токенов пользователей.
+ */
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    List<TokenRevocation> findByRevokedAtAfter(LocalDateTime revokedAt);
+
+    /**
+     * Записывает отзыв токенов пользователя: увеличивает поколение токенов, момент отзыва только сдвигается вперед.
+     *
+     * @return новое поколение токенов пользователя
+     */
+    @Query(value = "INSERT INTO token_revocations (user_id, revoked_at, generation) VALUES (:userId, :revokedAt, 1) " +
+            "ON CONFLICT (user_id) DO UPDATE SET generation = token_revocations.generation + 1, " +
+            "revoked_at = GREATEST(token_revocations.revoked_at, EXCLUDED.revoked_at) RETURNING generation", nativeQuery = true)
+    long revoke(Long userId, LocalDateTime revokedAt);
+}
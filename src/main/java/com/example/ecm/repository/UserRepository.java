@@ -2,6 +2,7 @@ package com.example.ecm.repository;
 
 import com.example.ecm.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,6 +12,6 @@ import java.util.Optional;
  * Обеспечивает стандартные операции CRUD для пользователей.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
     Optional<User> findByEmail(String email);
 }
@@ -4,9 +4,26 @@ import com.example.ecm.model.Voting;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
 public interface VotingRepository extends JpaRepository<Voting, Long> {
     List<Voting> findByStatus(String status);
+
+    /**
+     * Возвращает идентификаторы и сроки голосований без загрузки связанных сущностей.
+     */
+    List<VotingDeadline> findAllByStatus(String status);
+
+    /**
+     * Возвращает голосования со сроком не позже указанной даты.
+     */
+    List<VotingDeadline> findAllByStatusAndDeadlineLessThanEqual(String status, LocalDate deadline);
+
+    interface VotingDeadline {
+        Long getId();
+
+        LocalDate getDeadline();
+    }
 }
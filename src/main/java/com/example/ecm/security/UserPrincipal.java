@@ -15,6 +15,8 @@ public class UserPrincipal implements UserDetails {
     private final String login;
     private final String password;
     private final Collection<? extends GrantedAuthority> authorities;
+    /** Поколение токена, по которому аутентифицирован пользователь, или null для токенов без поколения */
+    private final Long generation;
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
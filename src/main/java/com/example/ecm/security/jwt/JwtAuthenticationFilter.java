@@ -1,5 +1,7 @@
 package com.example.ecm.security.jwt;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.ecm.security.UserPrincipal;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,16 +22,31 @@ import java.util.Optional;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtDecoder decoder;
     private final JwtToPrincipalConverter converter;
+    private final JwtPrincipalCache principalCache;
+    private final TokenRevocationStore revocationStore;
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         extractToken(request)
-                .map(decoder::decode)
-                .map(converter::convert)
+                .map(this::authenticate)
+                .filter(principal -> !revocationStore.isRevoked(principal.getId(), principal.getGeneration()))
                 .map(UserPrincipalAuthenticationToken::new)
                 .ifPresent(authentication -> SecurityContextHolder.getContext().setAuthentication(authentication));
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Возвращает пользователя из кэша или проверяет токен и кэширует результат.
+     */
+    private UserPrincipal authenticate(String token) {
+        UserPrincipal principal = principalCache.get(token);
+        if (principal == null) {
+            DecodedJWT jwt = decoder.decode(token);
+            principal = converter.convert(jwt);
+            principalCache.put(token, jwt, principal);
+        }
+        return principal;
+    }
+
     private Optional<String> extractToken(HttpServletRequest request) {
         var token = request.getHeader("Authorization");
         if (StringUtils.hasText(token) && token.startsWith("Bearer ")) return Optional.of(token.substring(7));
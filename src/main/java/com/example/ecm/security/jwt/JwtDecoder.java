@@ -1,17 +1,24 @@
 package com.example.ecm.security.jwt;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+/**
+ * Проверяет подпись и срок действия JWT.
+ * Верификатор потокобезопасен и создается один раз при старте приложения.
+ */
 @Component
-@RequiredArgsConstructor
 public class JwtDecoder {
-    private final JwtProperties properties;
+    private final JWTVerifier verifier;
+
+    public JwtDecoder(JwtProperties properties) {
+        this.verifier = JWT.require(Algorithm.HMAC256(properties.getSecretKey())).build();
+    }
+
     public DecodedJWT decode(String token) {
-        return JWT.require(Algorithm.HMAC256(properties.getSecretKey()))
-                .build().verify(token);
+        return verifier.verify(token);
     }
 }
@@ -2,25 +2,34 @@ package com.example.ecm.security.jwt;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @Component
-@RequiredArgsConstructor
 public class JwtIssuer {
-    private final JwtProperties properties;
+    /** Утверждение с поколением токенов пользователя, см. {@link TokenRevocationStore} */
+    public static final String GENERATION_CLAIM = "gen";
 
-    public String issue(Long id, String login, List<String> roles) {
+    private final Algorithm algorithm;
+    private final Duration lifetime;
+
+    public JwtIssuer(JwtProperties properties) {
+        this.algorithm = Algorithm.HMAC256(properties.getSecretKey());
+        this.lifetime = properties.getLifetime();
+    }
+
+    public String issue(Long id, String login, List<String> roles, long generation) {
+        Instant issuedAt = Instant.now();
         return JWT.create()
                 .withSubject(login)
                 .withClaim("id", id)
                 .withClaim("a", roles)
-                .withExpiresAt(Instant.now().plus(Duration.of(1, ChronoUnit.DAYS)))
-                .sign(Algorithm.HMAC256(properties.getSecretKey()));
+                .withClaim(GENERATION_CLAIM, generation)
+                .withIssuedAt(issuedAt)
+                .withExpiresAt(issuedAt.plus(lifetime))
+                .sign(algorithm);
     }
 }
@@ -0,0 +1,127 @@
+package com.example.ecm.security.jwt;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.ecm.security.UserPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Кэш пользователей по уже проверенным JWT.
+ * Повторный запрос с тем же токеном не проверяет подпись и не разбирает утверждения заново.
+ * Запись живет не дольше срока действия токена и не дольше {@code security.jwt.cache.ttl}.
+ *
+ * <p>Чтение не берет блокировок и не меняет структуру кэша, поэтому попадание в кэш не сериализует запросы.
+ * Размер ограничен приблизительно: когда кэш заполнен, один из записывающих потоков удаляет истекшие записи,
+ * а если их не хватило - записи, которые истекают раньше всех, с запасом в десятую часть размера,
+ * чтобы очистка выполнялась редко. Остальные потоки в это время не ждут очистки.</p>
+ */
+@Component
+public class JwtPrincipalCache {
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final int maxSize;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public JwtPrincipalCache(@Value("${security.jwt.cache.max-size:10000}") int maxSize,
+                             @Value("${security.jwt.cache.ttl:5m}") Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+
+    JwtPrincipalCache(int maxSize, Duration ttl, Clock clock) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Возвращает пользователя по токену, если токен уже проверялся и запись не истекла.
+     *
+     * @param token JWT без префикса Bearer
+     * @return пользователь или null
+     */
+    public UserPrincipal get(String token) {
+        CachedPrincipal cached = principals.get(token);
+        if (cached == null) {
+            return null;
+        }
+        if (!cached.expiresAt().isAfter(clock.instant())) {
+            principals.remove(token, cached);
+            return null;
+        }
+        return cached.principal();
+    }
+
+    /**
+     * Запоминает пользователя для проверенного токена.
+     *
+     * @param token     JWT без префикса Bearer
+     * @param jwt       проверенный токен
+     * @param principal пользователь, полученный из токена
+     */
+    public void put(String token, DecodedJWT jwt, UserPrincipal principal) {
+        if (maxSize <= 0) {
+            return;
+        }
+        Instant now = clock.instant();
+        Instant expiresAt = now.plus(ttl);
+        if (jwt.getExpiresAtAsInstant() != null && jwt.getExpiresAtAsInstant().isBefore(expiresAt)) {
+            expiresAt = jwt.getExpiresAtAsInstant();
+        }
+        if (!expiresAt.isAfter(now)) {
+            return;
+        }
+        if (principals.size() >= maxSize) {
+            evict(now);
+        }
+        principals.put(token, new CachedPrincipal(principal, expiresAt));
+    }
+
+    /**
+     * Удаляет все записи кэша.
+     */
+    public void clear() {
+        principals.clear();
+    }
+
+    int size() {
+        return principals.size();
+    }
+
+    /**
+     * Освобождает место в кэше. Если очистку уже выполняет другой поток, запись добавляется без ожидания.
+     */
+    private void evict(Instant now) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            principals.values().removeIf(cached -> !cached.expiresAt().isAfter(now));
+            int target = maxSize - Math.max(1, maxSize / 10);
+            int excess = principals.size() - target;
+            if (excess > 0) {
+                principals.entrySet().stream()
+                        .sorted(Comparator.comparing(entry -> entry.getValue().expiresAt()))
+                        .limit(excess)
+                        .toList()
+                        .forEach(entry -> principals.remove(entry.getKey(), entry.getValue()));
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private record CachedPrincipal(UserPrincipal principal, Instant expiresAt) {
+    }
+}
@@ -4,9 +4,13 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Data
 @Configuration
 @ConfigurationProperties("security.jwt")
 public class JwtProperties {
     private String secretKey;
+    /** Срок действия выпускаемых токенов */
+    private Duration lifetime = Duration.ofDays(1);
 }
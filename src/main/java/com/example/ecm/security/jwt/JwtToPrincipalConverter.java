@@ -25,6 +25,7 @@ public class JwtToPrincipalConverter {
                 .id(userId)
                 .login(login)
                 .authorities(authorities)
+                .generation(jwt.getClaim(JwtIssuer.GENERATION_CLAIM).asLong())
                 .build();
     }
 
@@ -0,0 +1,115 @@
+package com.example.ecm.security.jwt;
+
+import com.example.ecm.model.TokenRevocation;
+import com.example.ecm.repository.TokenRevocationRepository;
+import com.example.ecm.service.TransactionCallbacks;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Хранилище отзывов токенов в памяти приложения.
+ *
+ * <p>Для каждого пользователя хранится поколение токенов: каждый отзыв увеличивает его в token_revocations,
+ * а токен при выпуске получает текущее поколение в утверждении {@value JwtIssuer#GENERATION_CLAIM}.
+ * Токены более раннего поколения недействительны; сравнение номеров не зависит от точности часов.
+ * Проверка при каждом запросе выполняется без обращения к базе данных. Отзывы на этом экземпляре приложения
+ * применяются после фиксации транзакции отзыва, с других экземпляров - после очередного чтения новых записей
+ * из token_revocations. Записи старше срока действия токена удаляются из памяти: выпущенных до них
+ * действующих токенов уже нет.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationStore {
+
+    /**
+     * Запас при чтении новых отзывов на случай транзакций, зафиксированных позже своего времени отзыва.
+     */
+    private static final Duration POLL_OVERLAP = Duration.ofMinutes(1);
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final JwtProperties properties;
+
+    private final Map<Long, Revocation> revocations = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastPoll;
+
+    @PostConstruct
+    void load() {
+        lastPoll = LocalDateTime.now().minus(properties.getLifetime());
+        refresh();
+    }
+
+    /**
+     * Отзывает все выпущенные ранее токены пользователя.
+     *
+     * @param userId идентификатор пользователя
+     */
+    @Transactional
+    public void revoke(Long userId) {
+        LocalDateTime revokedAt = LocalDateTime.now();
+        long generation = tokenRevocationRepository.revoke(userId, revokedAt);
+        TransactionCallbacks.afterCommit(() -> apply(userId, generation, revokedAt));
+    }
+
+    /**
+     * Возвращает поколение для нового токена пользователя. Читается из базы данных,
+     * чтобы новый токен не получил устаревшее поколение, если отзыв с другого экземпляра еще не прочитан.
+     *
+     * @param userId идентификатор пользователя
+     * @return текущее поколение токенов или 0, если токены пользователя не отзывались
+     */
+    @Transactional(readOnly = true)
+    public long currentGeneration(Long userId) {
+        return tokenRevocationRepository.findById(userId)
+                .map(TokenRevocation::getGeneration)
+                .orElse(0L);
+    }
+
+    /**
+     * Проверяет, отозван ли токен пользователя.
+     *
+     * @param userId     идентификатор пользователя
+     * @param generation поколение токена или null для токенов, выпущенных без поколения
+     * @return true, если поколение токена меньше текущего
+     */
+    public boolean isRevoked(Long userId, Long generation) {
+        Revocation revocation = revocations.get(userId);
+        if (revocation == null) {
+            return false;
+        }
+        return generation == null || generation < revocation.generation();
+    }
+
+    /**
+     * Читает отзывы, появившиеся с прошлого чтения, и удаляет устаревшие.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.poll-interval:5s}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        for (TokenRevocation revocation : tokenRevocationRepository.findByRevokedAtAfter(lastPoll.minus(POLL_OVERLAP))) {
+            apply(revocation.getUserId(), revocation.getGeneration(), revocation.getRevokedAt());
+        }
+        lastPoll = now;
+
+        LocalDateTime expired = now.minus(properties.getLifetime());
+        revocations.values().removeIf(revocation -> revocation.revokedAt().isBefore(expired));
+    }
+
+    private void apply(Long userId, long generation, LocalDateTime revokedAt) {
+        revocations.merge(userId, new Revocation(generation, revokedAt),
+                (current, candidate) -> candidate.generation() > current.generation() ? candidate : current);
+    }
+
+    /**
+     * Последний известный отзыв токенов пользователя.
+     */
+    private record Revocation(long generation, LocalDateTime revokedAt) {
+    }
+}
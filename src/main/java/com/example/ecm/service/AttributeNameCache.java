@@ -0,0 +1,100 @@
+package com.example.ecm.service;
+
+import com.example.ecm.exception.NotFoundException;
+import com.example.ecm.model.Attribute;
+import com.example.ecm.repository.AttributeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Кэш идентификаторов атрибутов по имени.
+ * Позволяет разрешить все имена атрибутов версии документа одним запросом IN
+ * (или вовсе без запросов, если имена и атрибуты уже в кэше) вместо findByName на каждое значение.
+ *
+ * <p>Атрибут может быть переименован на другом экземпляре приложения, поэтому запись живет не дольше
+ * {@code attributes.name-cache.ttl}, а атрибут, найденный по идентификатору из кэша, используется,
+ * только если его имя по-прежнему совпадает с запрошенным.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class AttributeNameCache {
+
+    private final AttributeRepository attributeRepository;
+
+    private final Map<String, CachedId> idsByName = new ConcurrentHashMap<>();
+
+    /**
+     * Время жизни записи кэша; ограничивает, как долго переименование на другом экземпляре остается незамеченным.
+     */
+    @Value("${attributes.name-cache.ttl:30s}")
+    private Duration ttl;
+
+    /**
+     * Находит атрибуты по именам.
+     * Атрибуты с именами из кэша загружаются по идентификаторам (кэшируемым запросом),
+     * остальные и переименованные - одним запросом по именам, и добавляются в кэш.
+     *
+     * @param names имена атрибутов
+     * @return атрибуты по имени
+     * @throws NotFoundException если атрибут с каким-либо из имен не найден
+     */
+    public Map<String, Attribute> resolve(Collection<String> names) {
+        Instant now = Instant.now();
+        Map<String, Attribute> attributes = new HashMap<>();
+        Map<Long, String> cachedNames = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+        for (String name : names) {
+            CachedId cached = idsByName.get(name);
+            if (cached != null && cached.expiresAt().isAfter(now)) {
+                cachedNames.put(cached.id(), name);
+            } else {
+                missing.add(name);
+            }
+        }
+
+        if (!cachedNames.isEmpty()) {
+            for (Attribute attribute : attributeRepository.findAttributesByIdIsIn(new ArrayList<>(cachedNames.keySet()))) {
+                String name = cachedNames.get(attribute.getId());
+                if (name.equals(attribute.getName())) {
+                    attributes.put(name, attribute);
+                }
+            }
+            for (String name : cachedNames.values()) {
+                if (!attributes.containsKey(name)) {
+                    idsByName.remove(name);
+                    missing.add(name);
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (Attribute attribute : attributeRepository.findByNameIn(missing)) {
+                idsByName.put(attribute.getName(), new CachedId(attribute.getId(), now.plus(ttl)));
+                attributes.put(attribute.getName(), attribute);
+            }
+            missing.removeAll(attributes.keySet());
+            if (!missing.isEmpty()) {
+                throw new NotFoundException("Attribute with name: " + missing.iterator().next() + " not found");
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * Удаляет имя из кэша, например, после переименования атрибута.
+     *
+     * @param name имя атрибута
+     */
+    public void evict(String name) {
+        idsByName.remove(name);
+    }
+
+    private record CachedId(Long id, Instant expiresAt) {
+    }
+}
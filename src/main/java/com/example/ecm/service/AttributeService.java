@@ -3,6 +3,7 @@ package com.example.ecm.service;
 import com.example.ecm.dto.patch_requests.PatchAttributeRequest;
 import com.example.ecm.dto.requests.CreateAttributeRequest;
 import com.example.ecm.dto.responses.CreateAttributeResponse;
+import com.example.ecm.dto.responses.CursorPage;
 import com.example.ecm.exception.ConflictException;
 import com.example.ecm.exception.NotFoundException;
 import com.example.ecm.mapper.AttributeMapper;
@@ -10,7 +11,10 @@ import com.example.ecm.model.Attribute;
 import com.example.ecm.model.DocumentType;
 import com.example.ecm.repository.AttributeRepository;
 import com.example.ecm.repository.DocumentTypeRepository;
+import com.example.ecm.repository.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -28,6 +32,8 @@ public class AttributeService {
     private final AttributeRepository attributeRepository;
     private final DocumentTypeRepository documentTypeRepository;
     private final AttributeMapper attributeMapper;
+    private final AttributeNameCache attributeNameCache;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Создает новый атрибут документа.
@@ -45,9 +51,9 @@ public class AttributeService {
         Attribute attribute = attributeMapper.toAttribute(request);
 
         attribute.getDocumentTypes().addAll(documentTypes);
-        return attributeMapper.toAttributeResponse(
-                attributeRepository.save(attribute)
-        );
+        CreateAttributeResponse response = attributeMapper.toAttributeResponse(attributeRepository.save(attribute));
+        referenceDataCache.evictDocumentTypeAttributes();
+        return response;
     }
 
     /**
@@ -69,18 +75,37 @@ public class AttributeService {
     /**
      * Получает все атрибуты документов.
      *
+     * @param showOnlyALive флаг, показывающий, выбирать активные или удаленные атрибуты
      * @return список ответов с данными всех атрибутов документов
      */
     public List<CreateAttributeResponse> getAllAttributes(Boolean showOnlyALive) {
-        List<Attribute> attributeList = attributeRepository.findAll();
-        Stream<Attribute> attributeStream = attributeList.stream();
-
-        attributeStream = attributeStream.filter(x -> x.getIsAlive().equals(showOnlyALive));
-
+        Specification<Attribute> specification = (root, query, cb) -> cb.equal(root.get("isAlive"), showOnlyALive);
+        return attributeRepository.findAll(specification, KeysetCursor.sort(true)).stream()
+                .map(attributeMapper::toAttributeResponse)
+                .toList();
+    }
 
-        return attributeStream
-                        .map(attributeMapper::toAttributeResponse)
-                        .toList();
+    /**
+     * Получает страницу атрибутов документов.
+     * Выборка выполняется по курсору (created_at, id), поэтому ее стоимость не зависит от глубины страницы.
+     *
+     * @param showOnlyALive флаг, показывающий, выбирать активные или удаленные атрибуты
+     * @param cursor        курсор страницы или null для первой страницы
+     * @param size          размер страницы
+     * @return страница ответов с данными атрибутов и курсором следующей страницы
+     */
+    public CursorPage<CreateAttributeResponse> getAllAttributes(Boolean showOnlyALive, String cursor, int size) {
+        Specification<Attribute> specification = (root, query, cb) -> cb.equal(root.get("isAlive"), showOnlyALive);
+        Window<Attribute> attributes = attributeRepository.findBy(specification, q -> q
+                .sortBy(KeysetCursor.sort(true))
+                .limit(size)
+                .scroll(KeysetCursor.decode(cursor)));
+
+        List<CreateAttributeResponse> items = attributes.stream()
+                .map(attributeMapper::toAttributeResponse)
+                .toList();
+        Attribute last = attributes.isEmpty() ? null : attributes.getContent().getLast();
+        return new CursorPage<>(items, attributes.hasNext() ? KeysetCursor.encode(last.getCreatedAt(), last.getId()) : null);
     }
 
     /**
@@ -96,10 +121,14 @@ public class AttributeService {
                 .orElseThrow(() -> new NotFoundException("Attribute with id: " + id + " not found"));
         List<DocumentType> documentTypes = documentTypeRepository.findDocumentTypesByIdIsIn(request.getDocumentTypesIds());
 
+        String previousName = attribute.getName();
         attribute.setDocumentTypes(documentTypes);
         attribute.setName(request.getName());
         attribute.setRequired(request.getRequired());
-        return attributeMapper.toAttributeResponse(attributeRepository.save(attribute));
+        CreateAttributeResponse response = attributeMapper.toAttributeResponse(attributeRepository.save(attribute));
+        attributeNameCache.evict(previousName);
+        referenceDataCache.evictDocumentTypeAttributes();
+        return response;
     }
 
     /**
@@ -119,6 +148,7 @@ public class AttributeService {
 
         attribute.setIsAlive(false);
         attributeRepository.save(attribute);
+        referenceDataCache.evictAttributeDocumentTypes();
     }
 
     public void recoverAttribute(Long id) {
@@ -141,6 +171,7 @@ public class AttributeService {
         Attribute attribute = attributeRepository.findById(id)
                 .filter(Attribute::getIsAlive)
                 .orElseThrow(() -> new NotFoundException("Attribute with id: " + id + " not found"));
+        String previousName = attribute.getName();
         if (request.getName() != null) {
             attribute.setName(request.getName());
         }
@@ -155,7 +186,10 @@ public class AttributeService {
         }
 
 
-        return attributeMapper.toAttributeResponse(attributeRepository.save(attribute));
+        CreateAttributeResponse response = attributeMapper.toAttributeResponse(attributeRepository.save(attribute));
+        attributeNameCache.evict(previousName);
+        referenceDataCache.evictDocumentTypeAttributes();
+        return response;
     }
 
     /**
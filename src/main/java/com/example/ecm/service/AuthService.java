@@ -3,6 +3,7 @@ package com.example.ecm.service;
 import com.example.ecm.dto.responses.LoginResponse;
 import com.example.ecm.security.UserPrincipal;
 import com.example.ecm.security.jwt.JwtIssuer;
+import com.example.ecm.security.jwt.TokenRevocationStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,6 +20,7 @@ public class AuthService {
     private final JwtIssuer issuer;
     private final AuthenticationManager manager;
     private final UserService userService;
+    private final TokenRevocationStore tokenRevocationStore;
 
     public LoginResponse attemptLogin(String login, String password) {
         log.info("Attempting to login using login: " + login);
@@ -35,7 +37,7 @@ public class AuthService {
 
         var roles = principle.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
 
-        var token = issuer.issue(principle.getId(), principle.getLogin(), roles);
+        var token = issuer.issue(principle.getId(), principle.getLogin(), roles, tokenRevocationStore.currentGeneration(id));
         return LoginResponse.builder().token(token).user(user).build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.example.ecm.service;
+
+import com.example.ecm.dto.requests.UploadedContent;
+import com.example.ecm.exception.ServerException;
+import com.example.ecm.model.ContentBlob;
+import com.example.ecm.model.DocumentVersion;
+import com.example.ecm.repository.ContentBlobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+/**
+ * Сервис для хранения содержимого файлов по SHA-256.
+ * Одинаковое содержимое загружается в MinIO один раз под ключом blobs/{sha256},
+ * версии документов ссылаются на него, а счетчик ссылок позволяет удалить объект,
+ * когда на него больше никто не ссылается.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContentBlobService {
+
+    private static final String BLOB_PREFIX = "blobs/";
+    private static final String UPLOAD_PREFIX = "uploads/";
+
+    private final ContentBlobRepository contentBlobRepository;
+    private final MinioService minioService;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Сохраняет содержимое и добавляет на него одну ссылку.
+     * Если SHA-256 известен заранее и такое содержимое уже есть, обращения к MinIO не выполняются.
+     * Иначе содержимое загружается во временный объект, а после вычисления SHA-256 копируется
+     * под постоянный ключ внутри MinIO либо удаляется, если такое содержимое уже хранится.
+     *
+     * @param content     содержимое
+     * @param contentType MIME-тип содержимого
+     * @return сохраненное содержимое
+     */
+    @Transactional
+    public ContentBlob store(UploadedContent content, String contentType) {
+        String checksum = content.getChecksum();
+        if (checksum != null) {
+            contentBlobRepository.lockChecksum(checksum);
+            if (contentBlobRepository.incrementRefCount(checksum) == 0) {
+                MinioService.StoredContent stored = minioService.putContent(
+                        BLOB_PREFIX + checksum, content.getContent(), content.getSize(), contentType);
+                contentBlobRepository.insertOrIncrementRefCount(checksum, stored.getObjectKey(), contentType, stored.getSize());
+            }
+        } else {
+            String uploadKey = UPLOAD_PREFIX + UUID.randomUUID();
+            try {
+                MinioService.StoredContent stored = minioService.putContent(
+                        uploadKey, content.getContent(), content.getSize(), contentType);
+                checksum = stored.getChecksum();
+                contentBlobRepository.lockChecksum(checksum);
+                if (contentBlobRepository.incrementRefCount(checksum) == 0) {
+                    minioService.copyObject(uploadKey, BLOB_PREFIX + checksum);
+                    contentBlobRepository.insertOrIncrementRefCount(checksum, BLOB_PREFIX + checksum, contentType, stored.getSize());
+                }
+            } finally {
+                minioService.deleteDocumentByName(uploadKey);
+            }
+        }
+        String storedChecksum = checksum;
+        return contentBlobRepository.findById(storedChecksum)
+                .orElseThrow(() -> new ServerException("Content " + storedChecksum + " was not stored"));
+    }
+
+    /**
+     * Загружает содержимое с заранее известным SHA-256 в MinIO, если такого содержимого еще нет,
+     * и сразу добавляет на него ссылку в отдельной транзакции: существующему содержимому можно доверять,
+     * только пока на него есть ссылка. Если содержимое в итоге не понадобилось,
+     * ссылку нужно освободить методом {@link #release(MinioService.StoredContent)}.
+     * Загрузки разного содержимого можно выполнять параллельно.
+     *
+     * @param content     содержимое с известным SHA-256
+     * @param contentType MIME-тип содержимого
+     * @return сведения о сохраненном объекте
+     */
+    @Transactional
+    public MinioService.StoredContent upload(UploadedContent content, String contentType) {
+        String checksum = content.getChecksum();
+        contentBlobRepository.lockChecksum(checksum);
+        if (contentBlobRepository.incrementRefCount(checksum) > 0) {
+            ContentBlob blob = contentBlobRepository.findById(checksum)
+                    .orElseThrow(() -> new ServerException("Content " + checksum + " was not stored"));
+            return new MinioService.StoredContent(blob.getObjectKey(), contentType, blob.getContentSize(), checksum);
+        }
+        MinioService.StoredContent stored = minioService.putContent(BLOB_PREFIX + checksum, content.getContent(), content.getSize(), contentType);
+        contentBlobRepository.insertOrIncrementRefCount(checksum, stored.getObjectKey(), contentType, stored.getSize());
+        return stored;
+    }
+
+    /**
+     * Освобождает ссылку, добавленную методом {@link #upload(UploadedContent, String)},
+     * если загруженное содержимое не было сохранено в версии документа.
+     *
+     * @param stored сведения о сохраненном объекте
+     */
+    @Transactional
+    public void release(MinioService.StoredContent stored) {
+        release(stored.getChecksum(), stored.getObjectKey());
+    }
+
+    /**
+     * Добавляет ссылку на содержимое версии документа, например, когда новая версия
+     * переиспользует содержимое предыдущей без повторной загрузки.
+     *
+     * @param documentVersion версия документа, содержимое которой переиспользуется
+     */
+    @Transactional
+    public void acquire(DocumentVersion documentVersion) {
+        if (isBlob(documentVersion)) {
+            contentBlobRepository.incrementRefCount(documentVersion.getChecksum());
+        }
+    }
+
+    /**
+     * Убирает ссылку версии документа на содержимое.
+     * Если ссылок не осталось, содержимое удаляется из MinIO после фиксации транзакции:
+     * при откате версия продолжает ссылаться на существующий объект.
+     *
+     * @param documentVersion версия документа, содержимое которой больше не используется
+     */
+    @Transactional
+    public void release(DocumentVersion documentVersion) {
+        if (!isBlob(documentVersion)) {
+            return;
+        }
+        release(documentVersion.getChecksum(), documentVersion.getObjectKey());
+    }
+
+    private void release(String checksum, String objectKey) {
+        contentBlobRepository.decrementRefCount(checksum);
+        if (contentBlobRepository.deleteIfUnreferenced(checksum) > 0) {
+            TransactionCallbacks.afterCommit(() -> deleteUnreferencedObject(checksum, objectKey));
+        }
+    }
+
+    /**
+     * Удаляет объект из MinIO, если за время после освобождения это содержимое не было загружено заново.
+     * Выполняется в отдельной транзакции под блокировкой SHA-256. Если удаление не удалось,
+     * объект остается в MinIO без ссылок, но ни одна версия не теряет содержимое.
+     */
+    private void deleteUnreferencedObject(String checksum, String objectKey) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transaction.executeWithoutResult(status -> {
+                contentBlobRepository.lockChecksum(checksum);
+                if (!contentBlobRepository.existsById(checksum)) {
+                    minioService.deleteDocumentByName(objectKey);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not delete unreferenced content {}: {}", objectKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Проверяет, хранится ли содержимое версии по SHA-256.
+     * Версии, загруженные до появления такого хранения, используют ключ {id}_{filename} и не учитываются.
+     */
+    private boolean isBlob(DocumentVersion documentVersion) {
+        return documentVersion.getChecksum() != null
+                && (BLOB_PREFIX + documentVersion.getChecksum()).equals(documentVersion.getObjectKey());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.ecm.service;
+
+import com.example.ecm.model.Document;
+import com.example.ecm.repository.DocumentRepository;
+import com.example.ecm.repository.DocumentSpecification;
+import com.example.ecm.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Сервис проверки доступа к документам.
+ * Документ доступен администратору, автору документа и получателям запросов на подпись его версий.
+ * Проверка выполняется одним запросом к базе данных для любого количества документов.
+ */
+@Service
+@RequiredArgsConstructor
+public class DocumentAccessService {
+
+    private final DocumentRepository documentRepository;
+
+    /**
+     * Определяет, какие из переданных документов доступны пользователю.
+     *
+     * @param documentIds   идентификаторы документов
+     * @param userPrincipal текущий пользователь
+     * @return множество идентификаторов доступных документов
+     */
+    public Set<Long> getVisibleDocumentIds(Collection<Long> documentIds, UserPrincipal userPrincipal) {
+        if (documentIds.isEmpty()) {
+            return Set.of();
+        }
+        if (userPrincipal.isAdmin()) {
+            return new HashSet<>(documentIds);
+        }
+        return documentRepository.findVisibleDocumentIds(documentIds, userPrincipal.getId());
+    }
+
+    /**
+     * Проверяет, доступен ли документ пользователю.
+     * Для администратора и автора документа запрос к базе данных не выполняется.
+     *
+     * @param document      документ
+     * @param userPrincipal текущий пользователь
+     * @return true, если пользователь может просматривать документ
+     */
+    public boolean canView(Document document, UserPrincipal userPrincipal) {
+        if (userPrincipal.isAdmin() || Objects.equals(document.getUser().getId(), userPrincipal.getId())) {
+            return true;
+        }
+        return getVisibleDocumentIds(Set.of(document.getId()), userPrincipal).contains(document.getId());
+    }
+
+    /**
+     * Возвращает условие выборки только доступных пользователю документов
+     * для использования в списках и подсчетах.
+     *
+     * @param userPrincipal текущий пользователь
+     * @return спецификация или null, если ограничений нет
+     */
+    public Specification<Document> getVisibilitySpecification(UserPrincipal userPrincipal) {
+        if (userPrincipal.isAdmin()) {
+            return null;
+        }
+        return DocumentSpecification.visibleTo(userPrincipal.getId());
+    }
+}
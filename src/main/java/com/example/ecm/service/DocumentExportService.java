@@ -0,0 +1,198 @@
+package com.example.ecm.service;
+
+import com.example.ecm.config.AsyncConfig;
+import com.example.ecm.dto.requests.SetValueRequest;
+import com.example.ecm.dto.responses.ExportDocumentEntry;
+import com.example.ecm.exception.NotFoundException;
+import com.example.ecm.exception.ServerException;
+import com.example.ecm.model.Document;
+import com.example.ecm.model.DocumentVersion;
+import com.example.ecm.repository.DocumentRepository;
+import com.example.ecm.security.UserPrincipal;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Сервис массового экспорта документов в ZIP-архив.
+ *
+ * <p>Архив пишется потоком прямо в ответ: первым идет manifest.json с метаданными и значениями атрибутов,
+ * затем файлы версий. Объекты MinIO открываются заранее в пуле ограниченного размера, а их содержимое
+ * копируется в архив по мере записи, поэтому память не зависит ни от количества, ни от размера файлов.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class DocumentExportService {
+
+    static final String MANIFEST_ENTRY = "manifest.json";
+
+    private final DocumentRepository documentRepository;
+    private final DocumentAccessService documentAccessService;
+    private final MinioService minioService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Пул чтения объектов MinIO при записи архивов.
+     */
+    @Qualifier(AsyncConfig.DOCUMENT_EXPORT_EXECUTOR)
+    private final AsyncTaskExecutor fetchExecutor;
+
+    /**
+     * Максимальное количество объектов MinIO, открытых одновременно во время записи архива.
+     */
+    @Value("${documents.export.max-in-flight:4}")
+    private int maxInFlight;
+
+    /**
+     * Собирает манифест экспорта. Метаданные читаются до начала записи ответа,
+     * поэтому ошибки доступа и отсутствующие документы возвращаются обычным статусом.
+     *
+     * @param ids           идентификаторы документов
+     * @param allVersions   экспортировать все версии или только последнюю
+     * @param isAlive       искать среди активных или удаленных документов
+     * @param userPrincipal текущий пользователь
+     * @return записи манифеста в порядке переданных идентификаторов
+     * @throws NotFoundException если какой-либо документ не найден или недоступен пользователю
+     */
+    @Transactional(readOnly = true)
+    public List<ExportDocumentEntry> getExportEntries(List<Long> ids, Boolean allVersions, Boolean isAlive, UserPrincipal userPrincipal) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        Set<Long> visibleIds = documentAccessService.getVisibleDocumentIds(uniqueIds, userPrincipal);
+        Map<Long, Document> documents = documentRepository.findAllById(uniqueIds).stream()
+                .filter(document -> document.getIsAlive().equals(isAlive))
+                .filter(document -> visibleIds.contains(document.getId()))
+                .collect(Collectors.toMap(Document::getId, Function.identity()));
+
+        List<Long> missingIds = uniqueIds.stream().filter(id -> !documents.containsKey(id)).toList();
+        if (!missingIds.isEmpty()) {
+            throw new NotFoundException("Documents with ids: " + missingIds + " not found");
+        }
+
+        List<ExportDocumentEntry> entries = new ArrayList<>();
+        for (Long id : uniqueIds) {
+            Document document = documents.get(id);
+            List<DocumentVersion> versions = allVersions
+                    ? document.getDocumentVersions().stream().sorted(Comparator.comparing(DocumentVersion::getVersionId)).toList()
+                    : List.of(document.getLatestVersion());
+            for (DocumentVersion version : versions) {
+                entries.add(toExportEntry(document, version));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Пишет архив в поток. Поток не закрывается.
+     *
+     * @param entries      записи манифеста
+     * @param outputStream поток ответа
+     * @throws IOException при ошибке записи в поток
+     */
+    public void writeArchive(List<ExportDocumentEntry> entries, OutputStream outputStream) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        // Файлы документов обычно уже сжаты, поэтому выигрыш от сильного сжатия не окупает процессорное время.
+        zip.setLevel(Deflater.BEST_SPEED);
+
+        zip.putNextEntry(new ZipEntry(MANIFEST_ENTRY));
+        objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(zip, entries);
+        zip.closeEntry();
+
+        Deque<Future<InputStream>> inFlight = new ArrayDeque<>();
+        Iterator<ExportDocumentEntry> pending = entries.iterator();
+        try {
+            for (ExportDocumentEntry entry : entries) {
+                while (inFlight.size() < maxInFlight && pending.hasNext()) {
+                    String objectKey = pending.next().getObjectKey();
+                    inFlight.add(fetchExecutor.<InputStream>submit(() -> minioService.getObject(objectKey, null, null)));
+                }
+                zip.putNextEntry(new ZipEntry(entry.getPath()));
+                try (InputStream inputStream = await(inFlight.poll(), entry)) {
+                    inputStream.transferTo(zip);
+                }
+                zip.closeEntry();
+            }
+        } finally {
+            closeAll(inFlight);
+        }
+        zip.finish();
+    }
+
+    private InputStream await(Future<InputStream> future, ExportDocumentEntry entry) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new ServerException("Could not read content of document " + entry.getDocumentId() + " version " + entry.getVersionId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerException("Interrupted while exporting documents");
+        }
+    }
+
+    /**
+     * Закрывает объекты, открытые заранее, если запись архива прервалась.
+     */
+    private void closeAll(Deque<Future<InputStream>> inFlight) {
+        for (Future<InputStream> future : inFlight) {
+            try (InputStream inputStream = future.get()) {
+                // поток закрывается try-with-resources
+            } catch (Exception ignored) {
+                // объект не был открыт
+            }
+        }
+    }
+
+    private ExportDocumentEntry toExportEntry(Document document, DocumentVersion version) {
+        ExportDocumentEntry entry = new ExportDocumentEntry();
+        entry.setDocumentId(document.getId());
+        entry.setVersionId(version.getVersionId());
+        entry.setDocumentTypeId(document.getDocumentType().getId());
+        entry.setState(document.getState());
+        entry.setExternalId(document.getExternalId());
+        entry.setTitle(version.getTitle());
+        entry.setDescription(version.getDescription());
+        entry.setCreatedAt(version.getCreatedAt());
+        entry.setFilename(version.getFilename());
+        entry.setContentType(version.getContentType());
+        entry.setContentSize(version.getContentSize());
+        entry.setChecksum(version.getChecksum());
+        entry.setObjectKey(version.getObjectKey());
+        entry.setPath("documents/" + document.getId() + "/" + version.getVersionId() + "/" + sanitizeFilename(version.getFilename()));
+        entry.setValues(version.getValues().entrySet().stream()
+                .map(value -> {
+                    SetValueRequest setValueRequest = new SetValueRequest();
+                    setValueRequest.setAttributeName(value.getKey().getName());
+                    setValueRequest.setValue(value.getValue().getValue());
+                    return setValueRequest;
+                })
+                .toList());
+        return entry;
+    }
+
+    /**
+     * Оставляет от имени файла только последний компонент пути, чтобы записи архива не выходили за каталог версии.
+     */
+    private String sanitizeFilename(String filename) {
+        if (filename == null || filename.isBlank()) {
+            return "content";
+        }
+        String name = filename.substring(Math.max(filename.lastIndexOf('/'), filename.lastIndexOf('\\')) + 1);
+        return name.isBlank() || name.equals(".") || name.equals("..") ? "content" : name;
+    }
+}
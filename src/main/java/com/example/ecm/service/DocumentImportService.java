@@ -0,0 +1,320 @@
+package com.example.ecm.service;
+
+import com.example.ecm.config.AsyncConfig;
+import com.example.ecm.dto.requests.ImportDocumentRequest;
+import com.example.ecm.dto.requests.SetValueRequest;
+import com.example.ecm.dto.requests.UploadedContent;
+import com.example.ecm.dto.responses.BulkImportResponse;
+import com.example.ecm.dto.responses.ImportDocumentResult;
+import com.example.ecm.exception.BadRequestException;
+import com.example.ecm.exception.NotFoundException;
+import com.example.ecm.mapper.DocumentMapper;
+import com.example.ecm.model.*;
+import com.example.ecm.model.enums.DocumentState;
+import com.example.ecm.model.enums.ImportStatus;
+import com.example.ecm.repository.*;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис массового импорта документов.
+ *
+ * <p>Файлы загружаются в MinIO параллельно в пуле ограниченного размера, а документы, их первые версии
+ * и значения атрибутов сохраняются пакетами в отдельных транзакциях по мере готовности загрузок,
+ * поэтому запись в базу данных и загрузка следующих файлов идут одновременно.
+ * Каждая строка манифеста получает свой результат; ошибка в одном пакете не откатывает остальные.
+ * Импорт можно повторить: документы с уже импортированным externalId пропускаются.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentImportService {
+
+    private final DocumentRepository documentRepository;
+    private final DocumentVersionRepository documentVersionRepository;
+    private final ValueRepository valueRepository;
+    private final UserRepository userRepository;
+    private final DocumentTypeRepository documentTypeRepository;
+    private final DocumentMapper documentMapper;
+    private final AttributeNameCache attributeNameCache;
+    private final ContentBlobService contentBlobService;
+    private final MinioService minioService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Пул загрузки файлов в MinIO; его размер ограничивает число одновременных загрузок.
+     */
+    @Qualifier(AsyncConfig.DOCUMENT_IMPORT_EXECUTOR)
+    private final AsyncTaskExecutor uploadExecutor;
+
+    /**
+     * Количество документов, сохраняемых в одной транзакции.
+     */
+    @Value("${documents.import.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * Импортирует документы по NDJSON-манифесту.
+     *
+     * @param manifest поток манифеста, одна строка - один {@link ImportDocumentRequest}
+     * @param files    файлы документов по именам частей multipart-запроса
+     * @return результаты импорта по строкам манифеста
+     * @throws BadRequestException если манифест не является корректным NDJSON
+     */
+    public BulkImportResponse importDocuments(InputStream manifest, Map<String, MultipartFile> files) {
+        List<ImportDocumentRequest> requests = readManifest(manifest);
+        List<ImportDocumentResult> results = new ArrayList<>(requests.size());
+
+        Map<String, Long> importedIds = documentRepository.findByExternalIdIn(requests.stream()
+                        .map(ImportDocumentRequest::getExternalId)
+                        .filter(Objects::nonNull)
+                        .toList()).stream()
+                .collect(Collectors.toMap(Document::getExternalId, Document::getId));
+
+        Set<Long> userIds = userRepository.findAllById(requests.stream().map(ImportDocumentRequest::getUserId).filter(Objects::nonNull).collect(Collectors.toSet())).stream()
+                .map(User::getId)
+                .collect(Collectors.toSet());
+        Set<Long> documentTypeIds = documentTypeRepository.findAllById(requests.stream().map(ImportDocumentRequest::getDocumentTypeId).filter(Objects::nonNull).collect(Collectors.toSet())).stream()
+                .map(DocumentType::getId)
+                .collect(Collectors.toSet());
+
+        Set<String> externalIds = new HashSet<>();
+        List<PendingImport> pending = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ImportDocumentRequest request = requests.get(i);
+            ImportDocumentResult result = new ImportDocumentResult(i + 1, request.getExternalId(), null, null, null);
+            results.add(result);
+
+            String error = validate(request, files, userIds, documentTypeIds);
+            if (error != null) {
+                fail(result, error);
+            } else if (importedIds.containsKey(request.getExternalId())) {
+                result.setStatus(ImportStatus.SKIPPED);
+                result.setDocumentId(importedIds.get(request.getExternalId()));
+            } else if (!externalIds.add(request.getExternalId())) {
+                fail(result, "Duplicate externalId in manifest");
+            } else {
+                MultipartFile file = files.get(request.getFile());
+                pending.add(new PendingImport(request, file, result, uploadExecutor.submit(() -> upload(file))));
+            }
+        }
+
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            saveBatch(pending.subList(from, Math.min(from + batchSize, pending.size())));
+        }
+        return new BulkImportResponse(results);
+    }
+
+    private List<ImportDocumentRequest> readManifest(InputStream manifest) {
+        try (MappingIterator<ImportDocumentRequest> iterator = objectMapper.readerFor(ImportDocumentRequest.class).readValues(manifest)) {
+            return iterator.readAll();
+        } catch (IOException | RuntimeException e) {
+            throw new BadRequestException("Invalid import manifest: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Проверяет строку манифеста до загрузки файла, чтобы строки с заведомой ошибкой не загружали содержимое в MinIO.
+     */
+    private String validate(ImportDocumentRequest request, Map<String, MultipartFile> files, Set<Long> userIds, Set<Long> documentTypeIds) {
+        Set<ConstraintViolation<ImportDocumentRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+        }
+        if (!files.containsKey(request.getFile())) {
+            return "File part " + request.getFile() + " not found";
+        }
+        if (!userIds.contains(request.getUserId())) {
+            return "User with id: " + request.getUserId() + " not found";
+        }
+        if (!documentTypeIds.contains(request.getDocumentTypeId())) {
+            return "Document type with id: " + request.getDocumentTypeId() + " not found";
+        }
+        try {
+            attributeNameCache.resolve(request.getValues().stream().map(SetValueRequest::getAttributeName).toList());
+        } catch (NotFoundException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    /**
+     * Загружает файл в MinIO и добавляет ссылку на содержимое. SHA-256 вычисляется заранее
+     * отдельным чтением временного файла, поэтому уже сохраненное содержимое повторно не передается.
+     */
+    private MinioService.StoredContent upload(MultipartFile file) throws IOException {
+        String contentType = file.getContentType() != null
+                ? file.getContentType()
+                : minioService.getMimeTypeByFilename(file.getOriginalFilename());
+        String checksum;
+        try (InputStream inputStream = file.getInputStream()) {
+            checksum = minioService.checksum(inputStream);
+        }
+        try (InputStream inputStream = file.getInputStream()) {
+            return contentBlobService.upload(
+                    new UploadedContent(file.getOriginalFilename(), contentType, file.getSize(), inputStream, checksum), contentType);
+        }
+    }
+
+    /**
+     * Дожидается загрузки файлов пакета и сохраняет документы пакета в одной транзакции.
+     */
+    private void saveBatch(List<PendingImport> batch) {
+        List<PendingImport> uploaded = new ArrayList<>();
+        for (PendingImport item : batch) {
+            try {
+                item.stored = item.upload.get();
+                uploaded.add(item);
+            } catch (ExecutionException e) {
+                fail(item.result, "Could not upload file: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(item.result, "Interrupted while uploading file");
+            }
+        }
+        if (uploaded.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<PendingImport> saved = transactionTemplate.execute(status -> saveDocuments(uploaded));
+            for (PendingImport item : saved) {
+                item.result.setStatus(ImportStatus.IMPORTED);
+                item.result.setDocumentId(item.document.getId());
+            }
+        } catch (RuntimeException e) {
+            uploaded.stream()
+                    .filter(item -> item.result.getStatus() == null)
+                    .forEach(item -> fail(item.result, "Could not save document: " + e.getMessage()));
+        }
+        uploaded.stream()
+                .filter(item -> item.result.getStatus() == ImportStatus.FAILED)
+                .forEach(this::releaseUpload);
+    }
+
+    /**
+     * Освобождает ссылку на содержимое строки, документ которой не был сохранен,
+     * чтобы загруженный для нее объект не остался в MinIO без ссылок.
+     */
+    private void releaseUpload(PendingImport item) {
+        try {
+            contentBlobService.release(item.stored);
+        } catch (RuntimeException e) {
+            log.warn("Could not release content {} of manifest line {}: {}", item.stored.getObjectKey(), item.result.getLine(), e.getMessage());
+        }
+    }
+
+    private List<PendingImport> saveDocuments(List<PendingImport> items) {
+        Map<Long, User> users = userRepository.findAllById(items.stream().map(item -> item.request.getUserId()).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, DocumentType> documentTypes = documentTypeRepository.findAllById(items.stream().map(item -> item.request.getDocumentTypeId()).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(DocumentType::getId, Function.identity()));
+
+        List<PendingImport> saved = new ArrayList<>();
+        List<Document> documents = new ArrayList<>();
+        List<DocumentVersion> versions = new ArrayList<>();
+        List<com.example.ecm.model.Value> values = new ArrayList<>();
+        for (PendingImport item : items) {
+            ImportDocumentRequest request = item.request;
+            User user = users.get(request.getUserId());
+            DocumentType documentType = documentTypes.get(request.getDocumentTypeId());
+            if (user == null) {
+                fail(item.result, "User with id: " + request.getUserId() + " not found");
+                continue;
+            }
+            if (documentType == null) {
+                fail(item.result, "Document type with id: " + request.getDocumentTypeId() + " not found");
+                continue;
+            }
+            Map<String, Attribute> attributes;
+            try {
+                attributes = attributeNameCache.resolve(request.getValues().stream().map(SetValueRequest::getAttributeName).toList());
+            } catch (NotFoundException e) {
+                fail(item.result, e.getMessage());
+                continue;
+            }
+
+            Document document = new Document();
+            document.setUser(user);
+            document.setDocumentType(documentType);
+            document.setIsAlive(true);
+            document.setExternalId(request.getExternalId());
+            if (Boolean.TRUE.equals(request.getIsDraft()))
+                document.setState(DocumentState.DRAFT);
+
+            DocumentVersion version = documentMapper.toDocumentVersion(request);
+            version.setDocument(document);
+            version.setVersionId(1L);
+            version.setCreatedAt(LocalDateTime.now());
+            version.setFilename(item.file.getOriginalFilename() != null ? item.file.getOriginalFilename() : request.getFile());
+            version.setObjectKey(item.stored.getObjectKey());
+            version.setContentType(item.stored.getContentType());
+            version.setContentSize(item.stored.getSize());
+            version.setChecksum(item.stored.getChecksum());
+            document.setLatestVersion(version);
+
+            for (SetValueRequest setValueRequest : request.getValues()) {
+                com.example.ecm.model.Value value = new com.example.ecm.model.Value();
+                value.setAttribute(attributes.get(setValueRequest.getAttributeName()));
+                value.setDocumentVersion(version);
+                value.setValue(setValueRequest.getValue());
+                values.add(value);
+            }
+
+            item.document = document;
+            documents.add(document);
+            versions.add(version);
+            saved.add(item);
+        }
+
+        documentRepository.saveAll(documents);
+        documentVersionRepository.saveAll(versions);
+        valueRepository.saveAll(values);
+        return saved;
+    }
+
+    private void fail(ImportDocumentResult result, String error) {
+        result.setStatus(ImportStatus.FAILED);
+        result.setError(error);
+    }
+
+    /**
+     * Строка манифеста, файл которой загружается или уже загружен в MinIO.
+     */
+    private static class PendingImport {
+        private final ImportDocumentRequest request;
+        private final MultipartFile file;
+        private final ImportDocumentResult result;
+        private final Future<MinioService.StoredContent> upload;
+        private MinioService.StoredContent stored;
+        private Document document;
+
+        PendingImport(ImportDocumentRequest request, MultipartFile file, ImportDocumentResult result, Future<MinioService.StoredContent> upload) {
+            this.request = request;
+            this.file = file;
+            this.result = result;
+            this.upload = upload;
+        }
+    }
+}
@@ -4,27 +4,36 @@ import com.example.ecm.dto.patch_requests.PatchDocumentVersionRequest;
 import com.example.ecm.dto.requests.AddCommentRequest;
 import com.example.ecm.dto.requests.CreateDocumentVersionRequest;
 import com.example.ecm.dto.requests.SetValueRequest;
+import com.example.ecm.dto.requests.UploadedContent;
 import com.example.ecm.dto.responses.AddCommentResponse;
 import com.example.ecm.dto.responses.CreateDocumentVersionResponse;
 import com.example.ecm.dto.requests.CreateDocumentRequest;
 import com.example.ecm.dto.responses.CreateDocumentResponse;
+import com.example.ecm.dto.responses.CursorPage;
+import com.example.ecm.dto.responses.DocumentContentResponse;
+import com.example.ecm.exception.RangeNotSatisfiableException;
 import com.example.ecm.exception.ConflictException;
 import com.example.ecm.mapper.*;
 import com.example.ecm.model.*;
+import com.example.ecm.model.enums.ContentMode;
 import com.example.ecm.model.enums.DocumentState;
 import com.example.ecm.repository.*;
 import com.example.ecm.exception.NotFoundException;
 import com.example.ecm.security.UserPrincipal;
 import com.example.ecm.exception.ServerException;
+import io.minio.GetObjectResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Stream;
-import java.util.stream.Collectors;
 
 /**
  * Сервис для работы с документами.
@@ -41,23 +50,40 @@ public class DocumentService {
     private final UserRepository userRepository;
     private final MinioService minioService;
     private final DocumentVersionRepository documentVersionRepository;
-    private final AttributeRepository attributeRepository;
+    private final AttributeNameCache attributeNameCache;
     private final ValueRepository valueRepository;
     private final CommentMapper commentMapper;
     private final CommentRepository commentRepository;
     private final DocumentStateService documentStateService;
     private final SignatureRequestRepository signatureRequestRepository;
+    private final DocumentAccessService documentAccessService;
+    private final ContentBlobService contentBlobService;
 
     /**
-     * Создает новый документ.
-     * Сохраняет данные документа в базе данных и файл в MinIO.
-     * В случае ошибки сохранения файла, документ удаляется из базы данных.
+     * Создает новый документ с содержимым, переданным в формате Base64.
      *
      * @param createDocumentRequest запрос на создание документа
-     * @return ответ с данными созданного документа или null в случае ошибки
+     * @return ответ с данными созданного документа
      */
     @Transactional
     public CreateDocumentResponse createDocument(Boolean isDraft, CreateDocumentRequest createDocumentRequest) {
+        CreateDocumentResponse response = createDocument(isDraft, createDocumentRequest,
+                minioService.parseContent(createDocumentRequest.getBase64Content()));
+        response.getDocumentVersions().get(0).setBase64Content(createDocumentRequest.getBase64Content());
+        return response;
+    }
+
+    /**
+     * Создает новый документ.
+     * Сохраняет данные документа в базе данных, а содержимое потоком передает в MinIO.
+     * В случае ошибки сохранения файла транзакция откатывается.
+     *
+     * @param createDocumentRequest запрос на создание документа
+     * @param content               содержимое первой версии документа
+     * @return ответ с данными созданного документа
+     */
+    @Transactional
+    public CreateDocumentResponse createDocument(Boolean isDraft, CreateDocumentRequest createDocumentRequest, UploadedContent content) {
         User user = userRepository.findById(createDocumentRequest.getUserId())
                 .orElseThrow(() -> new NotFoundException("User with id: " + createDocumentRequest.getUserId() + " not found"));
         DocumentType documentType = documentTypeRepository.findById(createDocumentRequest.getDocumentTypeId())
@@ -74,27 +100,15 @@ public class DocumentService {
         documentVersion.setDocument(documentSaved);
         documentVersion.setVersionId(1L);
         documentVersion.setCreatedAt(LocalDateTime.now());
-        String filename = minioService.parseFilename(createDocumentRequest.getBase64Content());
-        filename = filename != null ? filename : "Untitled";
-        documentVersion.setFilename(filename);
+        documentVersion.setFilename("Untitled");
         DocumentVersion documentVersionSaved = documentVersionRepository.save(documentVersion);
+        documentSaved.setLatestVersion(documentVersionSaved);
 
         setValues(createDocumentRequest.getValues(), documentVersionSaved);
-
-        CreateDocumentVersionRequest createDocumentVersionRequest = new CreateDocumentVersionRequest();
-
-        createDocumentVersionRequest.setDescription(documentVersion.getDescription());
-        createDocumentVersionRequest.setTitle(documentVersion.getTitle());
-        createDocumentVersionRequest.setBase64Content(createDocumentRequest.getBase64Content());
-
-        if (!minioService.addDocument(documentVersionSaved.getId(), createDocumentVersionRequest)) {
-            documentRepository.deleteById(documentVersionSaved.getId());
-            throw new ServerException("Could not add document");
-        }
+        uploadContent(documentVersionSaved, content);
 
         List<CreateDocumentVersionResponse> documentVersions = new ArrayList<>();
         CreateDocumentVersionResponse createDocumentVersionResponse = documentVersionMapper.toCreateDocumentVersionResponse(documentVersionSaved);
-        createDocumentVersionResponse.setBase64Content(createDocumentRequest.getBase64Content());
         createDocumentVersionResponse.setValues(createDocumentRequest.getValues());
         documentVersions.add(createDocumentVersionResponse);
 
@@ -111,7 +125,7 @@ public class DocumentService {
      * @return ответ с данными документа
      * @throws RuntimeException если документ не найден
      */
-    public CreateDocumentResponse getDocumentById(Long id, Boolean isAlive, UserPrincipal userPrincipal) {
+    public CreateDocumentResponse getDocumentById(Long id, Boolean isAlive, ContentMode contentMode, UserPrincipal userPrincipal) {
         Optional<Document> document = documentRepository.findById(id);
 
         if (isAlive) {
@@ -120,175 +134,221 @@ public class DocumentService {
             document = document.filter(d -> !d.getIsAlive());
         }
 
-        if (!userPrincipal.isAdmin()) {
-            document = document
-                    .filter(d ->
-                            Objects.equals(d.getUser().getId(), userPrincipal.getId())
-                                    ||
-                                    d.getDocumentVersions().stream()
-                                            .anyMatch(version ->
-                                                    signatureRequestRepository.existsByUserToIdAndDocumentVersionId(
-                                                            userPrincipal.getId(), version.getId()
-                                                    )
-                                            ));
-        }
+        document = document.filter(d -> documentAccessService.canView(d, userPrincipal));
 
         Document doc = document.orElseThrow(() -> new NotFoundException("Document with id: " + id + " not found"));
 
         CreateDocumentResponse response = documentMapper.toCreateDocumentResponse(doc);
 
-        return getCreateDocumentResponse(doc, response, userPrincipal);
+        return getCreateDocumentResponse(doc, response, contentMode);
     }
 
     public CreateDocumentVersionResponse getDocumentVersionById(Long documentId, Long versionId, Boolean isAlive, UserPrincipal userPrincipal) {
-        Optional<DocumentVersion> documentVersion = documentVersionRepository.findByDocumentIdAndVersionId(documentId, versionId);
-
-        if (isAlive) {
-            documentVersion = documentVersion.filter(v -> v.getDocument().getIsAlive());
-        } else {
-            documentVersion = documentVersion.filter(v -> !v.getDocument().getIsAlive());
-        }
-
-        if (!userPrincipal.isAdmin()) {
-            documentVersion = documentVersion.filter(version ->
-                    Objects.equals(version.getDocument().getUser().getId(), userPrincipal.getId())
-                            ||
-                            signatureRequestRepository.existsByUserToIdAndDocumentVersionId(userPrincipal.getId(), version.getId()));
-        }
-
-        DocumentVersion version = documentVersion.orElseThrow(() -> new NotFoundException("Document Version with id: " + versionId + " or Document id " + documentId + " not found"));
+        DocumentVersion version = findDocumentVersion(documentId, versionId, isAlive, userPrincipal);
 
         CreateDocumentVersionResponse response = documentVersionMapper.toCreateDocumentVersionResponse(version);
-        String base64Content = minioService.getBase64DocumentByName(version.getId() + "_" + version.getFilename());
+        String base64Content = minioService.getBase64Document(version);
         response.setBase64Content(base64Content);
         return response;
 
     }
 
     /**
-     * Получает список всех документов.
-     * Каждый документ в списке включает данные и содержимое файла в формате Base64.
+     * Открывает поток с содержимым версии документа для передачи клиенту без буферизации в памяти.
+     * Поддерживается один диапазон байтов из заголовка Range.
      *
-     * @return список ответов с данными всех документов
+     * @param documentId    идентификатор документа
+     * @param versionId     номер версии документа
+     * @param isAlive       искать среди активных или удаленных документов
+     * @param range         значение заголовка Range или null
+     * @param userPrincipal текущий пользователь
+     * @return поток с содержимым и его заголовки
+     * @throws NotFoundException            если версия не найдена или недоступна пользователю
+     * @throws RangeNotSatisfiableException если запрошенный диапазон выходит за пределы файла
      */
-    public List<CreateDocumentResponse> getAllDocuments(Integer page, Integer size, Boolean ascending, Boolean isAlive, UserPrincipal userPrincipal, Boolean showDraft) {
+    public DocumentContentResponse getDocumentVersionContent(Long documentId, Long versionId, Boolean isAlive, String range, UserPrincipal userPrincipal) {
+        DocumentVersion version = findDocumentVersion(documentId, versionId, isAlive, userPrincipal);
+        String objectKey = version.getObjectKey();
+
+        DocumentContentResponse response = new DocumentContentResponse();
+        response.setFilename(version.getFilename());
+
+        List<HttpRange> ranges = parseRanges(range);
+        GetObjectResponse object;
+        long contentLength;
+        if (ranges.size() == 1) {
+            long totalLength = version.getContentSize() != null ? version.getContentSize() : minioService.getObjectSize(objectKey);
+            long start;
+            long end;
+            try {
+                start = ranges.get(0).getRangeStart(totalLength);
+                end = ranges.get(0).getRangeEnd(totalLength);
+            } catch (IllegalArgumentException e) {
+                throw new RangeNotSatisfiableException("Range " + range + " is not satisfiable for content of size " + totalLength);
+            }
+            object = minioService.getObject(objectKey, start, end - start + 1);
+            contentLength = end - start + 1;
+            response.setRangeStart(start);
+            response.setRangeEnd(end);
+            response.setTotalLength(totalLength);
+        } else {
+            object = minioService.getObject(objectKey, null, null);
+            contentLength = -1;
+        }
 
-        List<DocumentVersion> latestVersions = documentVersionRepository.findLatestDocumentVersions();
+        try {
+            // Объект может быть общим для версий с разными MIME-типами, поэтому тип версии приоритетнее типа объекта.
+            String contentType = version.getContentType() != null ? version.getContentType() : object.headers().get(HttpHeaders.CONTENT_TYPE);
+            response.setContentType(contentType);
+            response.setContentLength(contentLength >= 0 ? contentLength : getContentLength(object, version));
+            response.setEtag(object.headers().get(HttpHeaders.ETAG));
+            response.setContent(object);
+            return response;
+        } catch (RuntimeException e) {
+            closeQuietly(object);
+            throw e;
+        }
+    }
 
-        latestVersions.sort(Comparator.comparing(DocumentVersion::getCreatedAt)
-                .reversed());
+    /**
+     * Размер всего объекта: из заголовка ответа MinIO, а если его нет (например, при chunked-передаче
+     * через прокси) - из метаданных версии или запросом размера объекта.
+     */
+    private long getContentLength(GetObjectResponse object, DocumentVersion version) {
+        String header = object.headers().get(HttpHeaders.CONTENT_LENGTH);
+        if (header != null) {
+            try {
+                return Long.parseLong(header.trim());
+            } catch (NumberFormatException ignored) {
+                // используется размер из метаданных
+            }
+        }
+        return version.getContentSize() != null ? version.getContentSize() : minioService.getObjectSize(version.getObjectKey());
+    }
 
-        List<Long> documentIds = latestVersions.stream()
-                .map(version -> version.getDocument().getId())
-                .distinct()
-                .collect(Collectors.toList());
+    private void closeQuietly(GetObjectResponse object) {
+        try {
+            object.close();
+        } catch (IOException ignored) {
+            // соединение уже закрыто
+        }
+    }
 
-        Stream<Document> documentStream = documentRepository.findAllById(documentIds).stream();
+    private List<HttpRange> parseRanges(String range) {
+        if (range == null || range.isBlank()) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            throw new RangeNotSatisfiableException("Invalid range: " + range);
+        }
+    }
 
+    /**
+     * Находит версию документа с учетом признака активности и прав доступа пользователя.
+     */
+    private DocumentVersion findDocumentVersion(Long documentId, Long versionId, Boolean isAlive, UserPrincipal userPrincipal) {
+        Optional<DocumentVersion> documentVersion = documentVersionRepository.findByDocumentIdAndVersionId(documentId, versionId);
 
         if (isAlive) {
-            documentStream = documentStream.filter(Document::getIsAlive);
+            documentVersion = documentVersion.filter(v -> v.getDocument().getIsAlive());
         } else {
-            documentStream = documentStream.filter(d -> !d.getIsAlive());
+            documentVersion = documentVersion.filter(v -> !v.getDocument().getIsAlive());
         }
 
-
         if (!userPrincipal.isAdmin()) {
-            documentStream = documentStream
-                    .filter(document ->
-                            Objects.equals(document.getUser().getId(), userPrincipal.getId())
-                                    ||
-                                    document.getDocumentVersions().stream()
-                                            .anyMatch(version ->
-                                                    signatureRequestRepository.existsByUserToIdAndDocumentVersionId(
-                                                            userPrincipal.getId(), version.getId()
-                                                    )
-                                            ));
-        }
-
-        if (showDraft != null) {
-            if (showDraft) {
-                documentStream = documentStream.filter(document -> document.getState() == DocumentState.DRAFT);
-            } else {
-                documentStream = documentStream.filter(document -> document.getState() != DocumentState.DRAFT);
-            }
+            documentVersion = documentVersion.filter(version ->
+                    Objects.equals(version.getDocument().getUser().getId(), userPrincipal.getId())
+                            ||
+                            signatureRequestRepository.existsByUserToIdAndDocumentVersionId(userPrincipal.getId(), version.getId()));
         }
 
-        List<Document> filteredDocuments = documentStream.toList();
-
-
-        int start = page * size;
-        int end = Math.min(start + size, filteredDocuments.size());
-        List<Document> paginatedDocuments = filteredDocuments.subList(start, end);
+        return documentVersion.orElseThrow(() -> new NotFoundException("Document Version with id: " + versionId + " or Document id " + documentId + " not found"));
+    }
 
+    /**
+     * Получает страницу документов.
+     * Фильтрация, проверка прав доступа, сортировка и пагинация выполняются в базе данных.
+     * Каждый документ в списке включает данные и содержимое файла в формате Base64.
+     *
+     * @return список ответов с данными документов на запрошенной странице
+     */
+    public List<CreateDocumentResponse> getAllDocuments(Integer page, Integer size, Boolean ascending, Boolean isAlive, UserPrincipal userPrincipal, Boolean showDraft, ContentMode contentMode) {
+        Specification<Document> specification = getDocumentsSpecification(isAlive, userPrincipal, showDraft)
+                .and(DocumentSpecification.orderByLatestVersion(ascending));
 
-        List<CreateDocumentResponse> createDocumentResponses = paginatedDocuments.stream()
+        return documentRepository.findAll(specification, PageRequest.of(page, size)).stream()
                 .map(document -> {
                     CreateDocumentResponse response = documentMapper.toCreateDocumentResponse(document);
-                    return getCreateDocumentResponse(document, response, userPrincipal);
+                    return getCreateDocumentResponse(document, response, contentMode);
                 })
                 .toList();
+    }
 
-        return new PageImpl<>(
-                createDocumentResponses, PageRequest.of(page, size),
-                filteredDocuments.size()
-        ).getContent();
+    /**
+     * Получает страницу документов по курсору.
+     * Документы сортируются по дате создания и идентификатору; фильтрация, проверка прав доступа
+     * и ограничение страницы выполняются в базе данных, а стоимость выборки не зависит от глубины страницы.
+     *
+     * @param cursor курсор страницы или null для первой страницы
+     * @return страница документов и курсор следующей страницы
+     */
+    public CursorPage<CreateDocumentResponse> getDocumentsPage(String cursor, Integer size, Boolean ascending, Boolean isAlive, UserPrincipal userPrincipal, Boolean showDraft, ContentMode contentMode) {
+        Window<Document> documents = documentRepository.findBy(getDocumentsSpecification(isAlive, userPrincipal, showDraft), q -> q
+                .sortBy(KeysetCursor.sort(ascending))
+                .limit(size)
+                .scroll(KeysetCursor.decode(cursor)));
+
+        List<CreateDocumentResponse> items = documents.stream()
+                .map(document -> getCreateDocumentResponse(document, documentMapper.toCreateDocumentResponse(document), contentMode))
+                .toList();
+        Document last = documents.isEmpty() ? null : documents.getContent().getLast();
+        return new CursorPage<>(items, documents.hasNext() ? KeysetCursor.encode(last.getCreatedAt(), last.getId()) : null);
     }
 
     public int getCountDocuments(Boolean showOnlyAlive, UserPrincipal userPrincipal, Boolean showDraft) {
+        Specification<Document> specification = getDocumentsSpecification(showOnlyAlive, userPrincipal, showDraft)
+                .and(DocumentSpecification.orderByLatestVersion(false));
 
-        List<DocumentVersion> latestVersions = documentVersionRepository.findLatestDocumentVersions();
-
-        latestVersions.sort(Comparator.comparing(DocumentVersion::getCreatedAt)
-                .reversed());
-
-        List<Long> documentIds = latestVersions.stream()
-                .map(version -> version.getDocument().getId())
-                .distinct()
-                .collect(Collectors.toList());
-
-
-        Stream<Document> documentStream = documentRepository.findAllById(documentIds.subList(0, latestVersions.size())).stream();
-
-        if (showOnlyAlive) {
-            documentStream = documentStream.filter(Document::getIsAlive);
-        } else {
-            documentStream = documentStream.filter(document -> document.getIsAlive().equals(Boolean.FALSE));
-        }
-        if (showDraft != null) {
-            if (showDraft) {
-                documentStream = documentStream.filter(document -> document.getState() == DocumentState.DRAFT);
-            } else {
-                documentStream = documentStream.filter(document -> document.getState() != DocumentState.DRAFT);
-            }
-        }
-
-        if (!userPrincipal.isAdmin()) {
-            documentStream = documentStream
-                    .filter(document ->
-                            Objects.equals(document.getUser().getId(), userPrincipal.getId())
-                                    ||
-                                    document.getDocumentVersions().stream()
-                                            .anyMatch(version ->
-                                                    signatureRequestRepository.existsByUserToIdAndDocumentVersionId(
-                                                            userPrincipal.getId(), version.getId()
-                                                    )
-                                            ));
-        }
-
-        return documentStream.toList().size();
+        return Math.toIntExact(documentRepository.count(specification));
+    }
 
+    /**
+     * Собирает общие для списка и подсчета документов условия выборки.
+     */
+    private Specification<Document> getDocumentsSpecification(Boolean isAlive, UserPrincipal userPrincipal, Boolean showDraft) {
+        return Specification.where(DocumentSpecification.isAlive(isAlive))
+                .and(DocumentSpecification.showDraft(showDraft))
+                .and(documentAccessService.getVisibilitySpecification(userPrincipal));
     }
 
 
-    private CreateDocumentResponse getCreateDocumentResponse(Document document, CreateDocumentResponse response, UserPrincipal userPrincipal) {
-        Stream<DocumentVersion> documentStream = document.getDocumentVersions().stream();
+    /**
+     * Заполняет версии документа в ответе.
+     * Содержимое файлов загружается из MinIO параллельно и только для версий, запрошенных режимом {@link ContentMode};
+     * для остальных возвращаются ключ объекта, MIME-тип и размер.
+     *
+     * @param document    документ
+     * @param response    ответ, в который записываются версии
+     * @param contentMode режим загрузки содержимого
+     * @return ответ с версиями документа
+     */
+    private CreateDocumentResponse getCreateDocumentResponse(Document document, CreateDocumentResponse response, ContentMode contentMode) {
+        Long latestVersionId = document.getLatestVersion() != null ? document.getLatestVersion().getId() : null;
+
+        List<DocumentVersion> versionsWithContent = document.getDocumentVersions().stream()
+                .filter(version -> contentMode == ContentMode.ALL
+                        || (contentMode == ContentMode.LATEST && Objects.equals(version.getId(), latestVersionId)))
+                .toList();
+        Map<Long, String> contents = minioService.getBase64Documents(versionsWithContent);
 
-        response.setDocumentVersions(documentStream
+        response.setDocumentVersions(document.getDocumentVersions().stream()
                 .map(version -> {
                     CreateDocumentVersionResponse versionResponse = documentVersionMapper.toCreateDocumentVersionResponse(version);
-                    String base64Content = minioService.getBase64DocumentByName(version.getId() + "_" + version.getFilename());
-                    versionResponse.setBase64Content(base64Content);
+                    if (contents.containsKey(version.getId())) {
+                        versionResponse.setBase64Content(contents.get(version.getId()));
+                    }
                     return versionResponse;
                 }).toList());
         return response;
@@ -325,81 +385,188 @@ public class DocumentService {
         documentRepository.save(document);
     }
 
+    /**
+     * Создает новую версию документа с содержимым, переданным в формате Base64.
+     *
+     * @param id                           идентификатор документа, для которого создается новая версия
+     * @param createDocumentVersionRequest объект {@link CreateDocumentVersionRequest}, содержащий информацию о новой версии
+     * @return объект {@link CreateDocumentVersionResponse}, содержащий данные о созданной версии
+     * @throws NotFoundException если документ с указанным ID не найден
+     */
+    @Transactional
+    public CreateDocumentVersionResponse updateDocumentVersion(Long id, CreateDocumentVersionRequest createDocumentVersionRequest) {
+        CreateDocumentVersionResponse response = updateDocumentVersion(id, createDocumentVersionRequest,
+                minioService.parseContent(createDocumentVersionRequest.getBase64Content()));
+        response.setBase64Content(createDocumentVersionRequest.getBase64Content());
+        return response;
+    }
+
     /**
      * Создает новую версию документа и сохраняет её в базе данных.
      *
      * <p>Метод находит документ по указанному ID, создает новую версию документа,
      * задает ей порядковый номер, время создания и связь с документом. Далее версия
      * сохраняется в репозитории версий документов. Также сохраняются значения атрибутов
-     * для этой версии и добавляется файл документа в MinIO.</p>
+     * для этой версии, а содержимое потоком передается в MinIO.</p>
      *
      * @param id                           идентификатор документа, для которого создается новая версия
      * @param createDocumentVersionRequest объект {@link CreateDocumentVersionRequest}, содержащий информацию о новой версии
+     * @param content                      содержимое новой версии
      * @return объект {@link CreateDocumentVersionResponse}, содержащий данные о созданной версии
      * @throws NotFoundException если документ с указанным ID не найден
      */
     @Transactional
-    public CreateDocumentVersionResponse updateDocumentVersion(Long id, CreateDocumentVersionRequest createDocumentVersionRequest) {
+    public CreateDocumentVersionResponse updateDocumentVersion(Long id, CreateDocumentVersionRequest createDocumentVersionRequest, UploadedContent content) {
         Document document = documentRepository.findById(id)
                 .filter(Document::getIsAlive)
                 .orElseThrow(() -> new NotFoundException("Document with id: " + id + " not found"));
 
-        DocumentVersion lastDocumentVersion = document.getDocumentVersions().getLast();
+        DocumentVersion lastDocumentVersion = document.getLatestVersion();
 
         if (!documentStateService.checkTransition(document, DocumentState.MODIFIED)) {
             throw new ConflictException("You cannot modify document with id: " + id + " check available transitions");
         }
 
         DocumentVersion documentVersion = documentVersionMapper.toDocumentVersion(createDocumentVersionRequest);
-        documentVersion.setVersionId((long) document.getDocumentVersions().size() + 1);
+        documentVersion.setVersionId(lastDocumentVersion.getVersionId() + 1);
         documentVersion.setCreatedAt(LocalDateTime.now());
         documentVersion.setFilename(lastDocumentVersion.getFilename());
         document.setState(DocumentState.MODIFIED);
 
 
         documentVersion.setDocument(document);
-
-        CreateDocumentVersionResponse response = documentVersionMapper.toCreateDocumentVersionResponse(documentVersionRepository.save(documentVersion));
+        documentVersionRepository.save(documentVersion);
+        document.setLatestVersion(documentVersion);
 
         setValues(createDocumentVersionRequest.getValues(), documentVersion);
+        uploadContent(documentVersion, content);
 
-        minioService.addDocument(documentVersion.getId(), createDocumentVersionRequest);
-        response.setBase64Content(createDocumentVersionRequest.getBase64Content());
+        CreateDocumentVersionResponse response = documentVersionMapper.toCreateDocumentVersionResponse(documentVersion);
         response.setValues(createDocumentVersionRequest.getValues());
         return response;
     }
 
+    /**
+     * Создает новую версию документа из двоичного содержимого.
+     * Заголовок, описание и значения атрибутов копируются из последней версии.
+     *
+     * @param id      идентификатор документа
+     * @param content содержимое новой версии
+     * @return объект {@link CreateDocumentVersionResponse}, содержащий данные о созданной версии
+     * @throws NotFoundException если документ с указанным ID не найден
+     */
+    @Transactional
+    public CreateDocumentVersionResponse uploadDocumentVersionContent(Long id, UploadedContent content) {
+        Document document = documentRepository.findById(id)
+                .filter(Document::getIsAlive)
+                .orElseThrow(() -> new NotFoundException("Document with id: " + id + " not found"));
+        DocumentVersion lastDocumentVersion = document.getLatestVersion();
+
+        CreateDocumentVersionRequest request = new CreateDocumentVersionRequest();
+        request.setTitle(lastDocumentVersion.getTitle());
+        request.setDescription(lastDocumentVersion.getDescription());
+        request.setValues(lastDocumentVersion.getValues().entrySet().stream()
+                .map(entry -> {
+                    SetValueRequest setValueRequest = new SetValueRequest();
+                    setValueRequest.setAttributeName(entry.getKey().getName());
+                    setValueRequest.setValue(entry.getValue().getValue());
+                    return setValueRequest;
+                }).toList());
+        return updateDocumentVersion(id, request, content);
+    }
+
     /**
      * Сохраняет или обновляет значения атрибутов для указанной версии документа.
      *
-     * <p>Метод проходит по списку значений атрибутов, находит соответствующие атрибуты в репозитории
-     * и связывает их с версией документа. Новые значения атрибутов сохраняются в базе данных.</p>
+     * <p>Все имена атрибутов разрешаются одним запросом через {@link AttributeNameCache},
+     * а новые значения сохраняются одним вызовом saveAll, который Hibernate отправляет
+     * пакетами размера hibernate.jdbc.batch_size.</p>
      *
      * @param values          список значений атрибутов для обновления
      * @param documentVersion версия документа, для которой устанавливаются значения атрибутов
      * @throws NotFoundException если атрибут с указанным именем не найден
      */
     private void setValues(List<SetValueRequest> values, DocumentVersion documentVersion) {
-        Map<Attribute, Value> currentValues =  documentVersion.getValues();
-        for (SetValueRequest newValue : values) {
-            Attribute attribute = attributeRepository.findByName(newValue.getAttributeName())
-                    .orElseThrow(() -> new NotFoundException("Attribute with name: " + newValue.getAttributeName() + " not found"));
-            Value value = new Value();
-            value.setAttribute(attribute);
-            value.setDocumentVersion(documentVersion);
-            value.setValue(newValue.getValue());
-            value = valueRepository.save(value);
-            currentValues.put(attribute, value);
-        }
+        Map<String, Attribute> attributes = attributeNameCache.resolve(values.stream()
+                .map(SetValueRequest::getAttributeName)
+                .toList());
+        saveValues(values.stream()
+                .map(newValue -> createValue(attributes.get(newValue.getAttributeName()), newValue.getValue(), documentVersion))
+                .toList(), documentVersion);
+    }
+
+    /**
+     * Копирует значения атрибутов из одной версии документа в другую без повторного поиска атрибутов.
+     *
+     * @param source          версия, из которой копируются значения
+     * @param documentVersion версия, в которую копируются значения
+     */
+    private void copyValues(DocumentVersion source, DocumentVersion documentVersion) {
+        saveValues(source.getValues().entrySet().stream()
+                .map(entry -> createValue(entry.getKey(), entry.getValue().getValue(), documentVersion))
+                .toList(), documentVersion);
+    }
+
+    private Value createValue(Attribute attribute, String text, DocumentVersion documentVersion) {
+        Value value = new Value();
+        value.setAttribute(attribute);
+        value.setDocumentVersion(documentVersion);
+        value.setValue(text);
+        return value;
+    }
+
+    private void saveValues(List<Value> values, DocumentVersion documentVersion) {
+        Map<Attribute, Value> currentValues = documentVersion.getValues();
+        valueRepository.saveAll(values).forEach(value -> currentValues.put(value.getAttribute(), value));
         documentVersion.setValues(currentValues);
     }
 
+    /**
+     * Сохраняет содержимое версии документа в хранилище по SHA-256 и записывает в версию ключ объекта,
+     * MIME-тип, размер и SHA-256, чтобы их можно было отдавать без обращения к MinIO.
+     * MIME-тип берется из загрузки, а не из общего содержимого: одинаковые байты могут быть загружены под разными типами.
+     * Ссылка на прежнее содержимое версии, если оно было, освобождается.
+     * Если у содержимого есть имя файла, оно становится именем файла версии.
+     *
+     * @param documentVersion сохраненная версия документа
+     * @param content         содержимое версии
+     */
+    private void uploadContent(DocumentVersion documentVersion, UploadedContent content) {
+        if (content.getFilename() != null && !content.getFilename().isBlank()) {
+            documentVersion.setFilename(content.getFilename());
+        }
+        String contentType = content.getContentType() != null
+                ? content.getContentType()
+                : minioService.getMimeTypeByFilename(documentVersion.getFilename());
+        ContentBlob blob = contentBlobService.store(content, contentType);
+        contentBlobService.release(documentVersion);
+        documentVersion.setObjectKey(blob.getObjectKey());
+        documentVersion.setContentType(contentType);
+        documentVersion.setContentSize(blob.getContentSize());
+        documentVersion.setChecksum(blob.getChecksum());
+    }
+
+    /**
+     * Переиспользует содержимое предыдущей версии в новой версии без передачи данных в MinIO.
+     *
+     * @param documentVersion новая версия документа
+     * @param previousVersion версия, содержимое которой переиспользуется
+     */
+    private void shareContent(DocumentVersion documentVersion, DocumentVersion previousVersion) {
+        contentBlobService.acquire(previousVersion);
+        documentVersion.setObjectKey(previousVersion.getObjectKey());
+        documentVersion.setContentType(previousVersion.getContentType());
+        documentVersion.setContentSize(previousVersion.getContentSize());
+        documentVersion.setChecksum(previousVersion.getChecksum());
+    }
+
     /**
      * Частично обновляет существующую версию документа на основе переданных изменений.
      *
      * <p>Метод находит версию документа по её ID и обновляет только те поля, которые переданы
      * в объекте {@link PatchDocumentVersionRequest}. Если передано новое содержимое (Base64),
-     * оно загружается в MinIO, а старое удаляется. Также могут быть обновлены значения атрибутов.</p>
+     * оно сохраняется в хранилище по SHA-256, иначе новая версия ссылается на содержимое предыдущей
+     * без обращения к MinIO. Также могут быть обновлены значения атрибутов.</p>
      *
      * @param id      идентификатор версии документа, которую требуется обновить
      * @param request объект {@link PatchDocumentVersionRequest}, содержащий данные для частичного обновления версии
@@ -413,7 +580,7 @@ public class DocumentService {
             throw new ConflictException("You cannot modify document with id: " + id + " check available transitions");
         }
 
-        DocumentVersion documentVersion = document.getDocumentVersions().getLast();
+        DocumentVersion documentVersion = document.getLatestVersion();
 
         DocumentVersion newVersion2 = new DocumentVersion();
         if(!document.getState().equals(DocumentState.DRAFT)) {
@@ -437,40 +604,33 @@ public class DocumentService {
             newVersion2.setTitle(documentVersion.getTitle());
         }
 
-        setValues(documentVersion.getValues().entrySet().stream()
-                .map(entry -> {
-                    SetValueRequest setValueRequest = new SetValueRequest();
-                    setValueRequest.setAttributeName(entry.getKey().getName());
-                    setValueRequest.setValue(entry.getValue().getValue());
-                    return setValueRequest;
-                }).toList(), newVersion2);
+        if (newVersion2 != documentVersion) {
+            copyValues(documentVersion, newVersion2);
+        }
 
 
 
         DocumentVersion newVersion = documentVersionRepository.save(newVersion2);
+        document.setLatestVersion(newVersion);
         newVersion = documentVersionRepository.findById(newVersion.getId()).orElse(null);
 
 
         if (request.getDescription() != null) {
             newVersion.setDescription(request.getDescription());
         }
-        if (request.getTitle() != null) {
-            CreateDocumentVersionRequest requestDocumentVersion = documentVersionMapper.toCreateDocumentVersionRequest(newVersion, minioService.getBase64DocumentByName(documentVersion.getId() + "_" + documentVersion.getFilename()));
-            newVersion.setTitle(request.getTitle());
-            requestDocumentVersion.setTitle(newVersion.getTitle());
-        }
-
         if (request.getBase64Content() != null && !request.getBase64Content().isEmpty()) {
-            minioService.addDocument(newVersion.getId(), documentVersionMapper.toCreateDocumentVersionRequest(newVersion, request.getBase64Content()));
-        } else {
-            minioService.addDocument(newVersion.getId(), documentVersionMapper.toCreateDocumentVersionRequest(newVersion, minioService.getBase64DocumentByName(documentVersion.getId() + "_" + newVersion.getFilename())));
+            uploadContent(newVersion, minioService.parseContent(request.getBase64Content()));
+        } else if (newVersion != documentVersion) {
+            shareContent(newVersion, documentVersion);
         }
 
         if (request.getValues() != null) {
             setValues(request.getValues(), newVersion);
         }
         CreateDocumentVersionResponse response = documentVersionMapper.toCreateDocumentVersionResponse(documentVersionRepository.save(newVersion));
-        response.setBase64Content(minioService.getBase64DocumentByName(newVersion.getId() + "_" + newVersion.getFilename()));
+        if (request.getBase64Content() != null && !request.getBase64Content().isEmpty()) {
+            response.setBase64Content(request.getBase64Content());
+        }
 
         return response;
 
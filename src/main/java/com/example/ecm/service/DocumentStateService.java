@@ -4,7 +4,6 @@ import com.example.ecm.exception.NotFoundException;
 import com.example.ecm.model.Document;
 import com.example.ecm.model.enums.DocumentState;
 import com.example.ecm.repository.DocumentRepository;
-import com.example.ecm.repository.SignatureRequestRepository;
 import com.example.ecm.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -15,7 +14,7 @@ import java.util.*;
 @RequiredArgsConstructor
 public class DocumentStateService {
     private final DocumentRepository documentRepository;
-    private final SignatureRequestRepository signatureRequestRepository;
+    private final DocumentAccessService documentAccessService;
     private final Map<DocumentState, List<DocumentState>> transitionMap = new HashMap<>();
     {
         transitionMap.put(DocumentState.DRAFT, List.of(DocumentState.CREATED, DocumentState.DELETED, DocumentState.DRAFT));
@@ -38,18 +37,7 @@ public class DocumentStateService {
             document = document.filter(Document::getIsAlive);
         }
 
-        if (!userPrincipal.isAdmin()) {
-            document = document
-                    .filter(d ->
-                            Objects.equals(d.getUser().getId(), userPrincipal.getId())
-                                    ||
-                                    d.getDocumentVersions().stream()
-                                            .anyMatch(version ->
-                                                    signatureRequestRepository.existsByUserToIdAndDocumentVersionId(
-                                                            userPrincipal.getId(), version.getId()
-                                                    )
-                                            ));
-        }
+        document = document.filter(d -> documentAccessService.canView(d, userPrincipal));
 
         Document doc = document.orElseThrow(() -> new NotFoundException("Document with id: " + id + " not found"));
         return transitionMap.get(doc.getState());
@@ -24,6 +24,7 @@ public class DocumentTypeService {
     private final DocumentTypeRepository documentTypeRepository;
     private final AttributeRepository attributeRepository;
     private final DocumentTypeMapper documentTypeMapper;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Создает новый тип документа.
@@ -48,6 +49,7 @@ public class DocumentTypeService {
         documentType.setAttributes(attributes);
 
         documentTypeRepository.save(documentType);
+        referenceDataCache.evictAttributeDocumentTypes();
         return documentTypeMapper.toCreateDocumentTypeResponse(documentType);
     }
 
@@ -118,7 +120,9 @@ public class DocumentTypeService {
         documentType.setId(id);
         documentType.setName(request.getName());
 
-        return documentTypeMapper.toCreateDocumentTypeResponse(documentTypeRepository.save(documentType));
+        CreateDocumentTypeResponse response = documentTypeMapper.toCreateDocumentTypeResponse(documentTypeRepository.save(documentType));
+        referenceDataCache.evictAttributeDocumentTypes();
+        return response;
     }
 
     /**
@@ -1,53 +1,56 @@
 package com.example.ecm.service;
 
+import com.example.ecm.model.MailOutboxMessage;
+import com.example.ecm.repository.MailOutboxRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+
 /**
  * Сервис для отправки уведомлений по электронной почте.
+ * Письма ставятся в очередь mail_outbox в транзакции вызывающего кода и отправляются {@link MailOutboxWorker},
+ * поэтому вызывающий поток не ждет SMTP-сервер.
  */
 @Service
 @RequiredArgsConstructor
 public class MailNotificationService {
-    private final JavaMailSender mailSender;
-    private final UserService userService;
-
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    private final MailOutboxRepository mailOutboxRepository;
 
     /**
      * Уведомляет пользователя о том, что ему пришел документ на подпись.
      *
-     * @param userId        идентификатор пользователя, которому отправляется уведомление.
+     * @param email         адрес электронной почты пользователя, которому отправляется уведомление.
      * @param documentTitle название документа, который нужно подписать.
      */
-    @Async
-    public void notifyUserSignature(Long userId, String documentTitle){
+    public void notifyUserSignature(String email, String documentTitle){
         String subject = "Подпишите документ";
         String text = String.format("Вам пришел документ \"%s\" на подпись", documentTitle);
-        String userEmail = userService.getUserById(userId, true).getEmail();
 
-        send(userEmail, subject, text);
+        send(email, subject, text);
     }
 
     /**
-     * Отправляет письмо с заданной темой и текстом на указанный адрес.
+     * Ставит в очередь письмо с заданной темой и текстом на указанный адрес.
      *
      * @param to      адрес электронной почты получателя.
      * @param subject тема письма.
      * @param text    текст письма.
      */
     public void send(String to, String subject, String text) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(fromEmail);
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(text);
+        mailOutboxRepository.save(new MailOutboxMessage(to, subject, text));
+    }
 
-        mailSender.send(message);
+    /**
+     * Ставит в очередь одинаковые письма для нескольких получателей одной пакетной вставкой.
+     *
+     * @param recipients адреса электронной почты получателей.
+     * @param subject    тема письма.
+     * @param text       текст письма.
+     */
+    public void sendAll(Collection<String> recipients, String subject, String text) {
+        mailOutboxRepository.saveAll(recipients.stream()
+                .map(recipient -> new MailOutboxMessage(recipient, subject, text))
+                .toList());
     }
 }
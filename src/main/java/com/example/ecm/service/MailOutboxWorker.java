@@ -0,0 +1,202 @@
+package com.example.ecm.service;
+
+import com.example.ecm.config.AsyncConfig;
+import com.example.ecm.model.MailOutboxMessage;
+import com.example.ecm.model.enums.MailStatus;
+import com.example.ecm.repository.MailOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Фоновая отправка писем из очереди mail_outbox.
+ *
+ * <p>Готовые письма блокируются пакетами с {@code FOR UPDATE SKIP LOCKED}, поэтому несколько экземпляров
+ * приложения не отправляют одно письмо дважды. Каждый пакет отправляется в пуле потоков через одно
+ * SMTP-соединение. Неудачные письма повторяются с экспоненциально растущей задержкой, а после
+ * {@code mail.outbox.max-attempts} попыток помечаются FAILED. Отправленные письма хранятся
+ * {@code mail.outbox.retention} и затем удаляются.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MailOutboxWorker {
+
+    /** Количество писем, удаляемых в одной транзакции очистки */
+    static final int PURGE_BATCH_SIZE = 1000;
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+
+    @Qualifier(AsyncConfig.MAIL_OUTBOX_EXECUTOR)
+    private final TaskExecutor sendExecutor;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    /** Количество писем, отправляемых через одно SMTP-соединение */
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    /** Количество одновременно отправляемых пакетов */
+    @Value("${mail.outbox.workers:4}")
+    private int workers;
+
+    @Value("${mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.backoff-initial:30s}")
+    private Duration backoffInitial;
+
+    @Value("${mail.outbox.backoff-max:1h}")
+    private Duration backoffMax;
+
+    /** Время, на которое письмо закрепляется за воркером на время отправки */
+    @Value("${mail.outbox.lease:5m}")
+    private Duration lease;
+
+    /** Срок хранения отправленных писем */
+    @Value("${mail.outbox.retention:7d}")
+    private Duration retention;
+
+    /** Свободные потоки пула отправки; пакет забирается из очереди, только если его есть кому отправить */
+    private Semaphore freeWorkers;
+
+    @PostConstruct
+    void initFreeWorkers() {
+        freeWorkers = new Semaphore(workers);
+    }
+
+    /**
+     * Забирает из очереди столько пакетов, сколько есть свободных потоков, и передает их на отправку.
+     * Поток планировщика не ждет SMTP-сервер.
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval:2s}")
+    public void poll() {
+        while (freeWorkers.tryAcquire()) {
+            List<MailOutboxMessage> batch;
+            try {
+                batch = claim();
+            } catch (RuntimeException e) {
+                freeWorkers.release();
+                throw e;
+            }
+            if (batch.isEmpty()) {
+                freeWorkers.release();
+                return;
+            }
+            sendExecutor.execute(() -> {
+                try {
+                    deliver(batch);
+                } catch (RuntimeException e) {
+                    log.error("Could not update mail outbox after delivery", e);
+                } finally {
+                    freeWorkers.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Удаляет отправленные письма старше срока хранения небольшими транзакциями.
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.purge-interval:1h}", initialDelayString = "${mail.outbox.purge-interval:1h}")
+    public void purgeSent() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> mailOutboxRepository.deleteSentBefore(before, PURGE_BATCH_SIZE));
+        } while (deleted != null && deleted == PURGE_BATCH_SIZE);
+    }
+
+    private List<MailOutboxMessage> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<MailOutboxMessage> messages = mailOutboxRepository.lockPending(now, batchSize);
+            if (!messages.isEmpty()) {
+                mailOutboxRepository.lease(messages.stream().map(MailOutboxMessage::getId).toList(), now.plus(lease));
+            }
+            return messages;
+        });
+    }
+
+    /**
+     * Отправляет пакет писем через одно SMTP-соединение и записывает результат каждого письма.
+     */
+    void deliver(List<MailOutboxMessage> batch) {
+        SimpleMailMessage[] messages = batch.stream().map(this::toMailMessage).toArray(SimpleMailMessage[]::new);
+        Map<Object, Exception> failedMessages = Map.of();
+        MailException batchError = null;
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failedMessages = e.getFailedMessages();
+            batchError = e;
+        } catch (MailException e) {
+            batchError = e;
+        }
+
+        List<Long> sent = new ArrayList<>();
+        Map<MailOutboxMessage, Exception> failed = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (batchError == null) {
+                sent.add(batch.get(i).getId());
+            } else if (failedMessages.isEmpty() || failedMessages.containsKey(messages[i])) {
+                failed.put(batch.get(i), failedMessages.getOrDefault(messages[i], batchError));
+            } else {
+                sent.add(batch.get(i).getId());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                mailOutboxRepository.markSent(sent, MailStatus.SENT, now);
+            }
+            failed.forEach((message, error) -> {
+                int attempts = message.getAttempts() + 1;
+                MailStatus mailStatus = attempts >= maxAttempts ? MailStatus.FAILED : MailStatus.PENDING;
+                mailOutboxRepository.markFailed(message.getId(), mailStatus, attempts, now.plus(backoff(attempts)), error.getMessage());
+            });
+        });
+        if (!failed.isEmpty()) {
+            log.warn("Could not send {} of {} mails: {}", failed.size(), batch.size(), batchError.getMessage());
+        }
+    }
+
+    /**
+     * Задержка перед следующей попыткой: удваивается с каждой неудачей, но не превышает {@code mail.outbox.backoff-max}.
+     */
+    Duration backoff(int attempts) {
+        Duration delay = backoffInitial.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+    }
+
+    private SimpleMailMessage toMailMessage(MailOutboxMessage outboxMessage) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(outboxMessage.getRecipient());
+        message.setSubject(outboxMessage.getSubject());
+        message.setText(outboxMessage.getBody());
+        return message;
+    }
+}
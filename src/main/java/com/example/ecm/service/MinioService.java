@@ -1,17 +1,34 @@
 package com.example.ecm.service;
 
-import com.example.ecm.dto.requests.CreateDocumentVersionRequest;
+import com.example.ecm.config.AsyncConfig;
+import com.example.ecm.dto.requests.UploadedContent;
+import com.example.ecm.exception.NotFoundException;
+import com.example.ecm.exception.ServerException;
+import com.example.ecm.model.DocumentVersion;
 import io.minio.*;
 import io.minio.errors.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.*;
 
 /**
  * Сервис для работы с MinIO, реализующий загрузку, получение и удаление файлов.
@@ -22,9 +39,27 @@ public class MinioService {
 
     private final MinioClient minioClient;
 
+    /**
+     * Пул потоков для параллельного чтения объектов; его размер ограничивает число запросов к MinIO.
+     */
+    @Qualifier(AsyncConfig.MINIO_FETCH_EXECUTOR)
+    private final AsyncTaskExecutor fetchExecutor;
+
     @Value("${minio.bucket-name}")
     private String bucketName;
 
+    /**
+     * Размер части при загрузке объектов в MinIO; определяет объем памяти на одну загрузку.
+     */
+    @Value("${minio.upload.part-size:10485760}")
+    private long partSize;
+
+    /**
+     * Максимальное время получения содержимого всех объектов в рамках одного запроса.
+     */
+    @Value("${minio.fetch.timeout:30s}")
+    private Duration fetchTimeout;
+
     /**
      * Карта для сопоставления расширений файлов с их MIME-типами.
      */
@@ -38,78 +73,197 @@ public class MinioService {
     }};
 
     /**
-     * Загружает документ в MinIO.
-     * Документ загружается в виде Base64-строки, которая декодируется перед отправкой.
+     * Разбирает содержимое, переданное в виде Base64-строки формата filename:...;data:...;base64,...
+     * Если строка пуста или имеет некорректный формат, возвращается пустое содержимое.
      *
-     * @param id идентификатор документа
-     * @return true, если загрузка прошла успешно, иначе false
+     * @param base64Content содержимое в формате Base64
+     * @return содержимое файла с его именем, MIME-типом и SHA-256
      */
-    public boolean addDocument(Long id, CreateDocumentVersionRequest request) {
-        try {
-            String base64Content = request.getBase64Content();
-
-            byte[] fileBytes = new byte[0];
-            String mimeType = "application/octet-stream";
-            String filename = null;
-            if (base64Content != null && !base64Content.isEmpty()) {
-                String[] parts = base64Content.split(",");
-                if (parts.length < 2) {
-                    System.err.println("Некорректный формат Base64-строки, будет сохранена пустая строка.");
-                } else {
-                    fileBytes = Base64.getDecoder().decode(parts[1]);
-                    mimeType = parseData(base64Content);
-                    filename = parseFilename(base64Content);
-                }
+    public UploadedContent parseContent(String base64Content) {
+        byte[] fileBytes = new byte[0];
+        String mimeType = "application/octet-stream";
+        String filename = null;
+        if (base64Content != null && !base64Content.isEmpty()) {
+            String[] parts = base64Content.split(",");
+            if (parts.length < 2) {
+                System.err.println("Некорректный формат Base64-строки, будет сохранена пустая строка.");
             } else {
-                System.err.println("Base64-строка пуста, будет сохранена пустая строка.");
+                fileBytes = Base64.getDecoder().decode(parts[1]);
+                String data = parseData(base64Content);
+                mimeType = data != null ? data : mimeType;
+                filename = parseFilename(base64Content);
             }
-            if(filename == null)
-                filename = "Untitled";
-            String fileKey = id + "_" + filename;
+        } else {
+            System.err.println("Base64-строка пуста, будет сохранена пустая строка.");
+        }
+        try {
+            String checksum = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(fileBytes));
+            return new UploadedContent(filename, mimeType, fileBytes.length, new ByteArrayInputStream(fileBytes), checksum);
+        } catch (NoSuchAlgorithmException e) {
+            throw new ServerException("Could not parse document content");
+        }
+    }
 
+    /**
+     * Загружает содержимое в MinIO потоком.
+     * Данные передаются частями фиксированного размера (multipart upload), поэтому
+     * расход памяти не зависит от размера файла. Размер и SHA-256 содержимого вычисляются на лету.
+     *
+     * @param objectKey   ключ объекта
+     * @param stream      поток с содержимым
+     * @param size        размер содержимого или -1, если он неизвестен
+     * @param contentType MIME-тип содержимого
+     * @return сведения о сохраненном объекте
+     */
+    public StoredContent putContent(String objectKey, InputStream stream, long size, String contentType) {
+        try {
+            DigestingInputStream digestingStream = new DigestingInputStream(stream, MessageDigest.getInstance("SHA-256"));
             minioClient.putObject(
                     PutObjectArgs.builder()
                             .bucket(bucketName)
-                            .object(fileKey)
-                            .stream(new ByteArrayInputStream(fileBytes), fileBytes.length, -1)
-                            .contentType(mimeType)
+                            .object(objectKey)
+                            .stream(digestingStream, size, partSize)
+                            .contentType(contentType)
                             .build()
             );
-
-            return true;
+            return new StoredContent(objectKey, contentType, digestingStream.getCount(), digestingStream.getChecksum());
         } catch (Exception e) {
             e.printStackTrace();
-            return false;
+            throw new ServerException("Could not add document");
         }
     }
 
+    /**
+     * Вычисляет SHA-256 содержимого потока, не сохраняя его.
+     *
+     * @param stream поток с содержимым
+     * @return SHA-256 в шестнадцатеричном виде
+     */
+    public String checksum(InputStream stream) {
+        try {
+            DigestingInputStream digestingStream = new DigestingInputStream(stream, MessageDigest.getInstance("SHA-256"));
+            digestingStream.transferTo(OutputStream.nullOutputStream());
+            return digestingStream.getChecksum();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new ServerException("Could not read document content");
+        }
+    }
 
+    /**
+     * Копирует объект внутри MinIO без передачи содержимого через приложение.
+     *
+     * @param source ключ исходного объекта
+     * @param target ключ нового объекта
+     */
+    public void copyObject(String source, String target) {
+        try {
+            minioClient.copyObject(CopyObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(target)
+                    .source(CopySource.builder()
+                            .bucket(bucketName)
+                            .object(source)
+                            .build())
+                    .build());
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new ServerException("Could not copy document content");
+        }
+    }
+
+    /**
+     * Определяет MIME-тип по расширению имени файла.
+     *
+     * @param filename имя файла
+     * @return MIME-тип или application/octet-stream, если расширение неизвестно
+     */
+    public String getMimeTypeByFilename(String filename) {
+        if (filename == null || filename.lastIndexOf('.') < 0) {
+            return "application/octet-stream";
+        }
+        String extension = filename.substring(filename.lastIndexOf('.') + 1).toLowerCase();
+        return extensionToMimeType.getOrDefault(extension, "application/octet-stream");
+    }
 
     /**
      * Извлекает документ из MinIO по имени и возвращает его содержимое в виде исходной Base64-строки,
      * сохраняя MIME-тип и префикс (если они были сохранены).
+     * MIME-тип берется из заголовков ответа на тот же запрос, отдельный statObject не выполняется.
      *
      * @param name имя документа (идентификатор + название файла)
      * @return содержимое документа в исходном формате Base64 или null в случае ошибки
      */
     public String getBase64DocumentByName(String name) {
-        try (InputStream stream = minioClient.getObject(GetObjectArgs.builder()
+        return getBase64Document(name, name.substring(name.indexOf('_') + 1), null);
+    }
+
+    /**
+     * Извлекает содержимое версии документа из MinIO одним запросом и возвращает его в виде Base64-строки.
+     *
+     * @param documentVersion версия документа
+     * @return содержимое документа в исходном формате Base64 или null в случае ошибки
+     */
+    public String getBase64Document(DocumentVersion documentVersion) {
+        return getBase64Document(documentVersion.getObjectKey(), documentVersion.getFilename(), documentVersion.getContentType());
+    }
+
+    /**
+     * Извлекает содержимое нескольких версий документов параллельно и возвращает его в виде Base64-строк.
+     * Число одновременных запросов к MinIO ограничено размером пула, а общее время ожидания -
+     * параметром minio.fetch.timeout, поэтому время ответа близко ко времени чтения самого большого объекта.
+     *
+     * @param documentVersions версии документов
+     * @return содержимое по идентификатору версии; для объектов, которые не удалось прочитать, значение null
+     * @throws ServerException если содержимое не удалось получить за отведенное время
+     */
+    public Map<Long, String> getBase64Documents(Collection<DocumentVersion> documentVersions) {
+        Map<Long, String> contents = new HashMap<>();
+        if (documentVersions.size() <= 1) {
+            documentVersions.forEach(version -> contents.put(version.getId(), getBase64Document(version)));
+            return contents;
+        }
+
+        long deadline = System.nanoTime() + fetchTimeout.toNanos();
+        Map<Long, Future<String>> futures = new HashMap<>();
+        documentVersions.forEach(version ->
+                futures.put(version.getId(), fetchExecutor.submit(() -> getBase64Document(version))));
+        try {
+            for (Map.Entry<Long, Future<String>> future : futures.entrySet()) {
+                contents.put(future.getKey(), future.getValue().get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+            }
+        } catch (TimeoutException e) {
+            throw new ServerException("Timed out reading documents content");
+        } catch (ExecutionException e) {
+            throw new ServerException("Could not read documents content");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerException("Interrupted while reading documents content");
+        } finally {
+            futures.values().forEach(future -> future.cancel(true));
+        }
+        return contents;
+    }
+
+    /**
+     * Извлекает объект из MinIO одним запросом и возвращает его содержимое в виде Base64-строки.
+     *
+     * @param name        ключ объекта
+     * @param filename    имя файла для префикса Base64-строки
+     * @param contentType MIME-тип, сохраненный в версии документа; если null, берется из заголовков ответа
+     * @return содержимое документа в исходном формате Base64 или null в случае ошибки
+     */
+    private String getBase64Document(String name, String filename, String contentType) {
+        try (GetObjectResponse response = minioClient.getObject(GetObjectArgs.builder()
                 .bucket(bucketName)
                 .object(name)
                 .build())) {
 
+            byte[] fileBytes = response.readAllBytes();
 
-            byte[] fileBytes = stream.readAllBytes();
-
-
-            String mimeType = minioClient.statObject(StatObjectArgs.builder()
-                            .bucket(bucketName)
-                            .object(name)
-                            .build())
-                    .contentType();
+            String mimeType = contentType != null ? contentType : response.headers().get("Content-Type");
 
             String base64Content = Base64.getEncoder().encodeToString(fileBytes);
-            return base64Content != null && !base64Content.isEmpty() ? "filename:" + name.substring(name.indexOf('_') + 1) + ";data:" + mimeType + ";base64," + base64Content : null;
+            return base64Content != null && !base64Content.isEmpty() ? "filename:" + filename + ";data:" + mimeType + ";base64," + base64Content : null;
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -117,6 +271,56 @@ public class MinioService {
         }
     }
 
+    /**
+     * Открывает поток чтения объекта из MinIO без загрузки его в память.
+     * Если указаны смещение и длина, читается только этот диапазон байтов.
+     *
+     * @param name   имя объекта
+     * @param offset смещение первого байта или null
+     * @param length количество байтов или null
+     * @return ответ MinIO с потоком содержимого и заголовками объекта
+     */
+    public GetObjectResponse getObject(String name, Long offset, Long length) {
+        try {
+            return minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(name)
+                    .offset(offset)
+                    .length(length)
+                    .build());
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                throw new NotFoundException("Content " + name + " not found");
+            }
+            throw new ServerException("Could not read content " + name);
+        } catch (Exception e) {
+            throw new ServerException("Could not read content " + name);
+        }
+    }
+
+    /**
+     * Возвращает размер объекта в MinIO.
+     *
+     * @param name имя объекта
+     * @return размер объекта в байтах
+     */
+    public long getObjectSize(String name) {
+        try {
+            return minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(name)
+                    .build())
+                    .size();
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                throw new NotFoundException("Content " + name + " not found");
+            }
+            throw new ServerException("Could not read content " + name);
+        } catch (Exception e) {
+            throw new ServerException("Could not read content " + name);
+        }
+    }
+
     /**
      * Удаляет документ из MinIO по его имени.
      *
@@ -169,4 +373,62 @@ public class MinioService {
         }
         return null;
     }
+
+    /**
+     * Сведения об объекте, сохраненном в MinIO.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class StoredContent {
+        private final String objectKey;
+        private final String contentType;
+        private final long size;
+        private final String checksum;
+    }
+
+    /**
+     * Поток, подсчитывающий количество прочитанных байтов и их SHA-256.
+     */
+    private static class DigestingInputStream extends FilterInputStream {
+        private final MessageDigest digest;
+        private long count;
+
+        DigestingInputStream(InputStream in, MessageDigest digest) {
+            super(in);
+            this.digest = digest;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                digest.update((byte) b);
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                digest.update(b, off, read);
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        String getChecksum() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
 }
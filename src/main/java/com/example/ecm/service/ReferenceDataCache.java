@@ -0,0 +1,74 @@
+package com.example.ecm.service;
+
+import com.example.ecm.dto.responses.CacheRegionStatisticsResponse;
+import com.example.ecm.model.Attribute;
+import com.example.ecm.model.DocumentType;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Управление кэшем второго уровня для справочных данных: типов документов, атрибутов и ролей.
+ *
+ * <p>Связь типов документов и атрибутов хранится в одной таблице, но отображена двумя независимыми коллекциями.
+ * Hibernate сбрасывает кэш только той коллекции, которая изменилась, поэтому противоположную
+ * сервисы сбрасывают явно после записи.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataCache {
+
+    private static final String DOCUMENT_TYPE_ATTRIBUTES = DocumentType.class.getName() + ".attributes";
+    private static final String ATTRIBUTE_DOCUMENT_TYPES = Attribute.class.getName() + ".documentTypes";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Сбрасывает закэшированные списки атрибутов типов документов.
+     */
+    public void evictDocumentTypeAttributes() {
+        sessionFactory().getCache().evictCollectionData(DOCUMENT_TYPE_ATTRIBUTES);
+    }
+
+    /**
+     * Сбрасывает закэшированные списки типов документов атрибутов.
+     */
+    public void evictAttributeDocumentTypes() {
+        sessionFactory().getCache().evictCollectionData(ATTRIBUTE_DOCUMENT_TYPES);
+    }
+
+    /**
+     * Возвращает количество попаданий и промахов по каждому региону кэша второго уровня и кэша запросов.
+     *
+     * @return статистика регионов
+     */
+    public List<CacheRegionStatisticsResponse> getStatistics() {
+        Statistics statistics = sessionFactory().getStatistics();
+        List<CacheRegionStatisticsResponse> regions = new ArrayList<>();
+        Arrays.stream(statistics.getSecondLevelCacheRegionNames()).sorted().forEach(name -> {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.add(toResponse(name, region.getHitCount(), region.getMissCount(), region.getPutCount()));
+            }
+        });
+        regions.add(toResponse("query-results", statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        return regions;
+    }
+
+    private CacheRegionStatisticsResponse toResponse(String region, long hits, long misses, long puts) {
+        long requests = hits + misses;
+        return new CacheRegionStatisticsResponse(region, hits, misses, puts, requests == 0 ? 0 : (double) hits / requests);
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.ecm.service;
+
+import com.example.ecm.kafka.event.DocumentSignedEvent;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Сервис журнала подписаний.
+ */
+@Service
+@RequiredArgsConstructor
+public class SignatureAuditService {
+
+    /**
+     * Повторно доставленная запись совпадает с уже записанной по топику, разделу и смещению
+     * и пропускается уникальным ограничением без предварительного чтения.
+     */
+    private static final String INSERT_SQL = "INSERT INTO signature_audit " +
+            "(document_id, document_version_id, user_id, signer_id, placeholder_title, topic, kafka_partition, kafka_offset) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (topic, kafka_partition, kafka_offset) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Записывает события одной пакетной вставкой.
+     * Уже записанные события пропускаются: смещения фиксируются в Kafka после записи,
+     * поэтому после сбоя между записью и фиксацией пакет может прийти повторно.
+     *
+     * @param records события пакета в порядке получения
+     * @return количество записанных событий
+     */
+    @Transactional
+    public int record(List<ConsumerRecord<String, DocumentSignedEvent>> records) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, records, records.size(), this::bind);
+        return (int) Arrays.stream(counts)
+                .flatMapToInt(Arrays::stream)
+                .filter(count -> count > 0 || count == Statement.SUCCESS_NO_INFO)
+                .count();
+    }
+
+    private void bind(PreparedStatement statement, ConsumerRecord<String, DocumentSignedEvent> record) throws SQLException {
+        DocumentSignedEvent event = record.value();
+        statement.setObject(1, event.getDocumentId(), Types.BIGINT);
+        statement.setObject(2, event.getDocumentVersionId(), Types.BIGINT);
+        statement.setObject(3, event.getUserId(), Types.BIGINT);
+        statement.setObject(4, event.getSignerId(), Types.BIGINT);
+        statement.setString(5, event.getPlaceholderTitle());
+        statement.setString(6, record.topic());
+        statement.setInt(7, record.partition());
+        statement.setLong(8, record.offset());
+    }
+}
@@ -18,6 +18,7 @@ import com.example.ecm.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -34,7 +35,9 @@ public class SignatureService {
     private final EventProducerService eventProducerService;
     private final MailNotificationService mailNotificationService;
     private final DocumentStateService documentStateService;
+    private final VotingTallyService votingTallyService;
 
+    @Transactional
     public CreateSignatureRequestResponse sendToSign(CreateSignatureRequestRequest request, UserPrincipal currentUser) {
         Document document = documentRepository.findById(request.getDocumentId())
                 .orElseThrow(() -> new NotFoundException("Document with id: " + request.getDocumentId() +" not found"));
@@ -53,8 +56,6 @@ public class SignatureService {
             throw new ConflictException("You cannot send on signing document with id: " + request.getDocumentId() + " check available transitions");
         }
 
-        mailNotificationService.notifyUserSignature(request.getUserIdTo(), documentVersion.getTitle());
-
         SignatureRequest signatureRequest = new SignatureRequest();
         signatureRequest.setUserTo(user);
         signatureRequest.setDocumentVersion(documentVersion);
@@ -66,10 +67,13 @@ public class SignatureService {
 
         documentRepository.save(document);
 
+        // Письмо ставится в очередь в той же транзакции и не уйдет, если запрос на подпись не сохранится.
+        mailNotificationService.notifyUserSignature(user.getEmail(), documentVersion.getTitle());
 
         return signatureMapper.toCreateSignatureRequestResponse(signatureRequest);
     }
 
+    @Transactional
     public GetSignatureResponse sign(Long id, CreateSignatureRequest request, Boolean signByRequest, UserPrincipal currentUser) {
 
         if (!signByRequest) {
@@ -84,7 +88,7 @@ public class SignatureService {
             Signature signature = new Signature();
             signature.setUser(document.getUser());
             signature.setPlaceholderTitle(request.getPlaceholderTitle());
-            signature.setDocumentVersion(document.getDocumentVersions().getLast());
+            signature.setDocumentVersion(document.getLatestVersion());
             signature.setHash(document.getUser().hashCode());
 
             if (!documentStateService.checkTransition(document, DocumentState.SIGNED_BY_AUTHOR)) {
@@ -130,16 +134,20 @@ public class SignatureService {
         }
 
         documentRepository.save(signRequest.getDocumentVersion().getDocument());
+        if (signRequest.getVoting() != null) {
+            votingTallyService.recordVote(signRequest.getVoting(), request.getStatus());
+        }
         Signature signature = new Signature();
         signature.setUser(signRequest.getUserTo());
         signature.setPlaceholderTitle(request.getPlaceholderTitle());
         signature.setDocumentVersion(signRequest.getDocumentVersion());
         signature.setHash(signRequest.getUserTo().hashCode());
 
-        DocumentSignedEvent event = new DocumentSignedEvent(id, currentUser.getId(), signRequest.getUserTo().getId(), request.getPlaceholderTitle());
-        eventProducerService.sendDocumentSignedEvent(event);
-
         signature = signatureRepository.save(signature);
+
+        DocumentSignedEvent event = new DocumentSignedEvent(signRequest.getDocumentVersion().getDocument().getId(),
+                signRequest.getDocumentVersion().getId(), currentUser.getId(), signRequest.getUserTo().getId(), request.getPlaceholderTitle());
+        eventProducerService.sendDocumentSignedEvent(event);
         return signatureMapper.toGetSignatureResponse(signature);
     }
 
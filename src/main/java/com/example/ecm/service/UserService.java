@@ -3,6 +3,7 @@ package com.example.ecm.service;
 import com.example.ecm.dto.patch_requests.PatchUserRequest;
 import com.example.ecm.dto.requests.CreateUserRequest;
 import com.example.ecm.dto.responses.CreateUserResponse;
+import com.example.ecm.dto.responses.CursorPage;
 import com.example.ecm.dto.requests.PutRoleRequest;
 import com.example.ecm.exception.ConflictException;
 import com.example.ecm.exception.ForbiddenException;
@@ -10,10 +11,14 @@ import com.example.ecm.exception.NotFoundException;
 import com.example.ecm.mapper.UserMapper;
 import com.example.ecm.model.Role;
 import com.example.ecm.model.User;
+import com.example.ecm.repository.KeysetCursor;
 import com.example.ecm.repository.RoleRepository;
 import com.example.ecm.repository.UserRepository;
 import com.example.ecm.security.UserPrincipal;
+import com.example.ecm.security.jwt.TokenRevocationStore;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,6 +40,7 @@ public class UserService {
     private final RoleRepository roleRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder encoder;
+    private final TokenRevocationStore tokenRevocationStore;
 
     /**
      * Создание нового пользователя на основе данных из DTO.
@@ -98,26 +104,45 @@ public class UserService {
                 .filter(User::getIsAlive)
                 .orElseThrow(() -> new NotFoundException("User with id: " + id + " not found"));
         user.getRoles().remove(role);
-        return userMapper.toCreateUserResponse(userRepository.save(user));
+        CreateUserResponse response = userMapper.toCreateUserResponse(userRepository.save(user));
+        tokenRevocationStore.revoke(user.getId());
+        return response;
     }
 
     /**
      * Получение списка всех пользователей с преобразованием в DTO.
      *
+     * @param isAlive Флаг, показывающий, выбирать активных или удаленных пользователей
      * @return Список DTO с данными пользователей
      */
     public List<CreateUserResponse> getAllUsers(Boolean isAlive) {
-        Stream<User> userStream = userRepository.findAll().stream();
-
-        if (isAlive) {
-            userStream = userStream.filter(User::getIsAlive);
-        } else {
-            userStream = userStream.filter(u -> !u.getIsAlive());
-        }
+        Specification<User> specification = (root, query, cb) -> cb.equal(root.get("isAlive"), isAlive);
+        return userRepository.findAll(specification, KeysetCursor.sort(true)).stream()
+                .map(userMapper::toCreateUserResponse)
+                .toList();
+    }
 
-        return userStream
+    /**
+     * Получение страницы пользователей с преобразованием в DTO.
+     * Выборка выполняется по курсору (created_at, id), поэтому ее стоимость не зависит от глубины страницы.
+     *
+     * @param isAlive Флаг, показывающий, выбирать активных или удаленных пользователей
+     * @param cursor  Курсор страницы или null для первой страницы
+     * @param size    Размер страницы
+     * @return Страница DTO с данными пользователей и курсором следующей страницы
+     */
+    public CursorPage<CreateUserResponse> getAllUsers(Boolean isAlive, String cursor, int size) {
+        Specification<User> specification = (root, query, cb) -> cb.equal(root.get("isAlive"), isAlive);
+        Window<User> users = userRepository.findBy(specification, q -> q
+                .sortBy(KeysetCursor.sort(true))
+                .limit(size)
+                .scroll(KeysetCursor.decode(cursor)));
+
+        List<CreateUserResponse> items = users.stream()
                 .map(userMapper::toCreateUserResponse)
                 .toList();
+        User last = users.isEmpty() ? null : users.getContent().getLast();
+        return new CursorPage<>(items, users.hasNext() ? KeysetCursor.encode(last.getCreatedAt(), last.getId()) : null);
     }
 
     /**
@@ -136,6 +161,7 @@ public class UserService {
         user.setEmail(updateUserRequest.getEmail());
         user.setPassword(encoder.encode(updateUserRequest.getPassword()));
         User updatedUser = userRepository.save(user);
+        tokenRevocationStore.revoke(updatedUser.getId());
 
         return userMapper.toCreateUserResponse(updatedUser);
     }
@@ -153,6 +179,7 @@ public class UserService {
 
         user.setIsAlive(false);
         userRepository.save(user);
+        tokenRevocationStore.revoke(user.getId());
     }
 
     public void recoverUser(Long id) {
@@ -203,6 +230,9 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        if (request.getEmail() != null || request.getPassword() != null) {
+            tokenRevocationStore.revoke(updatedUser.getId());
+        }
         return userMapper.toCreateUserResponse(updatedUser);
     }
 }
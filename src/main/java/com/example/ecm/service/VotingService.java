@@ -1,33 +1,29 @@
 package com.example.ecm.service;
 
-import com.example.ecm.dto.requests.CreateSignatureRequestRequest;
 import com.example.ecm.dto.requests.StartVotingRequest;
 import com.example.ecm.dto.responses.CancelVotingResponse;
 import com.example.ecm.dto.responses.StartVotingResponse;
 import com.example.ecm.exception.ConflictException;
 import com.example.ecm.exception.NotFoundException;
 import com.example.ecm.mapper.VotingMapper;
-import com.example.ecm.model.Document;
 import com.example.ecm.model.DocumentVersion;
 import com.example.ecm.model.SignatureRequest;
 import com.example.ecm.model.User;
 import com.example.ecm.model.Voting;
 import com.example.ecm.model.enums.DocumentState;
 import com.example.ecm.model.enums.SignatureRequestState;
-import com.example.ecm.repository.DocumentRepository;
 import com.example.ecm.repository.DocumentVersionRepository;
 import com.example.ecm.repository.SignatureRequestRepository;
 import com.example.ecm.repository.UserRepository;
 import com.example.ecm.repository.VotingRepository;
 import com.example.ecm.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.IntStream;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -36,11 +32,10 @@ public class VotingService {
     private final VotingRepository votingRepository;
     private final VotingMapper votingMapper;
     private final DocumentService documentService;
-    private final DocumentRepository documentRepository;
     private final UserRepository userRepository;
     private final SignatureRequestRepository signatureRequestRepository;
     private final DocumentVersionRepository documentVersionRepository;
-    private final MailNotificationService mailNotificationService;
+    private final VotingTallyService votingTallyService;
     private final DocumentStateService documentStateService;
     private final MinioService minioService;
 
@@ -52,34 +47,53 @@ public class VotingService {
                         .map(SignatureRequest::getUserTo)
                         .anyMatch(user -> user.getId().equals(userId))
                 ).toList();
-        List<String> contents = votings.stream().map(v -> minioService.getBase64DocumentByName(v.getDocumentVersion().getId() + "_" + v.getDocumentVersion().getFilename())).toList();
-
-        return IntStream.range(0, Math.min(votings.size(), contents.size()))
-                .mapToObj(i -> votingMapper.toStartVotingResponse(votings.get(i), contents.get(i))).toList();
+        Map<Long, String> contents = minioService.getBase64Documents(votings.stream()
+                .map(Voting::getDocumentVersion)
+                .collect(Collectors.toMap(DocumentVersion::getId, v -> v, (a, b) -> a))
+                .values());
+
+        return votings.stream()
+                .map(v -> votingMapper.toStartVotingResponse(v, contents.get(v.getDocumentVersion().getId())))
+                .toList();
     }
 
+    /**
+     * Запускает голосование по версии документа.
+     * Документ читается один раз вместе с версией, участники загружаются одним запросом,
+     * а запросы на подпись сохраняются одной пакетной вставкой.
+     *
+     * @param startVotingRequest параметры голосования
+     * @return созданное голосование
+     * @throws NotFoundException если версия документа или какой-либо участник не найдены
+     * @throws ConflictException если документ нельзя отправить на голосование
+     */
+    @Transactional
     public StartVotingResponse startVoting(StartVotingRequest startVotingRequest) {
         DocumentVersion documentVersion = documentVersionRepository.findByDocumentIdAndVersionId(startVotingRequest.getDocumentId(), startVotingRequest.getDocumentVersionId())
                 .orElseThrow(() -> new NotFoundException("Document Version with id: " + startVotingRequest.getDocumentId() + " or Document id " + startVotingRequest.getDocumentVersionId() + " not found"));
-        String base64Content = minioService.getBase64DocumentByName(documentVersion.getId() + "_" + documentVersion.getFilename());
 
         if (!documentStateService.checkTransition(documentVersion.getDocument(), DocumentState.SENT_ON_VOTING)) {
             throw new ConflictException("You cannot send on voting document with id: " + documentVersion.getDocument().getId() + " check available transitions");
         }
 
-
-        List<SignatureRequest> signatureRequests = sendAllParticipantsToVote(startVotingRequest);
+        List<SignatureRequest> signatureRequests = createSignatureRequests(documentVersion, startVotingRequest.getParticipantIds());
         Voting voting = votingMapper.toVoting(startVotingRequest, documentVersion, "ACTIVE");
 
         voting.getDocumentVersion().getDocument().setState(DocumentState.SENT_ON_VOTING);
 
         signatureRequests.forEach(r -> r.setVoting(voting));
         voting.setSignatureRequests(signatureRequests);
+        voting.setParticipantCount(signatureRequests.size());
+        voting.setCurrentApprovalRate(0f);
         votingRepository.save(voting);
+        signatureRequestRepository.saveAll(signatureRequests);
+        votingTallyService.register(voting);
 
+        String base64Content = minioService.getBase64Document(documentVersion);
         return votingMapper.toStartVotingResponse(voting, base64Content);
     }
 
+    @Transactional
     public CancelVotingResponse cancelVoting(Long votingId) {
         Voting voting = votingRepository.findById(votingId)
                 .orElseThrow(() -> new NotFoundException("Voting with id: " + votingId + " not found"));
@@ -87,86 +101,33 @@ public class VotingService {
         if (!voting.getStatus().equals("ACTIVE")) {
             throw new NotFoundException("Voting with id: " + votingId + " is not active");
         }
-        voting.setStatus("NEW_CANCELED");
-        votingRepository.save(voting);
+        votingTallyService.cancel(voting);
 
         return votingMapper.toCancelVotingResponse(voting);
     }
 
-    @Scheduled(cron = "@daily")
-    private void votingsResultsUpdate() {
-        votingRepository.findByStatus("ACTIVE").forEach(voting -> {
-            int all = voting.getSignatureRequests().size();
-            long inFavor = voting.getSignatureRequests().stream()
-                    .filter(signatureRequest -> signatureRequest.getStatus().equals(SignatureRequestState.APPROVED))
-                    .count();
-            voting.setCurrentApprovalRate(all / (float) inFavor);
-
-            if (LocalDateTime.now().isEqual(voting.getDeadline().atStartOfDay()) ||
-                    LocalDateTime.now().isAfter(voting.getDeadline().atStartOfDay())) {
-                voting.setStatus("COMPLETED");
-                if (voting.getCurrentApprovalRate() >= voting.getApprovalThreshold()) {
-                    voting.getDocumentVersion().getDocument().setState(DocumentState.APPROVED_BY_VOTING);
-                } else {
-                    voting.getDocumentVersion().getDocument().setState(DocumentState.REJECTED_BY_VOTING);
-                }
-                documentRepository.save(voting.getDocumentVersion().getDocument());
-                notifyParticipants(voting);
-            }
-
-            votingRepository.save(voting);
-        });
-        votingRepository.findByStatus("NEW_CANCELED").forEach(voting -> {
-            voting.setStatus("CANCELED");
-            notifyParticipants(voting);
-        });
-    }
-
-    private void notifyParticipants(Voting voting) {
-        for (SignatureRequest signatureRequest : voting.getSignatureRequests()) {
-            String text;
-            String documentTitle = voting.getDocumentVersion().getTitle();
-            if (voting.getStatus().equals("CANCELED"))  {
-                text = "Голосование по принятию документа \"%s\" было отменено".formatted(documentTitle);
-            } else  {
-                text = "Голосование по принятию документа \"%s\"завершилось. Благодарим за участие! Поддержало: %s%%, необходимо для принятия: %s%%."
-                    .formatted(documentTitle, voting.getCurrentApprovalRate(), voting.getApprovalThreshold());
-            }
-
-            mailNotificationService.send(signatureRequest.getUserTo().getEmail(), "Результаты голосования", text);
+    /**
+     * Создает запросы на подпись для всех участников голосования.
+     * Пользователи загружаются одним запросом, а отсутствующие идентификаторы возвращаются ошибкой до каких-либо изменений.
+     */
+    private List<SignatureRequest> createSignatureRequests(DocumentVersion documentVersion, List<Long> participantIds) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(participantIds);
+        Map<Long, User> users = userRepository.findAllById(uniqueIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<Long> missingIds = uniqueIds.stream().filter(id -> !users.containsKey(id)).toList();
+        if (!missingIds.isEmpty()) {
+            throw new NotFoundException("Users with ids: " + missingIds + " not found");
         }
-    }
-
-    private SignatureRequest sendToVote(CreateSignatureRequestRequest request) {
-        Document document = documentRepository.findById(request.getDocumentId())
-                .orElseThrow(() -> new NotFoundException("Document with id: " + request.getDocumentId() +" not found"));
-
-        DocumentVersion documentVersion = document.getDocumentVersions().stream()
-                .filter(v -> v.getVersionId().equals(request.getDocumentVersionId()))
-                .findFirst().orElseThrow(() -> new NotFoundException("Document version with id: " + request.getDocumentVersionId() +" not found"));
 
-        User user = userRepository.findById(request.getUserIdTo()).orElseThrow(() -> new NotFoundException("User with id: " + request.getUserIdTo() + " not found"));
-
-        SignatureRequest signatureRequest = new SignatureRequest();
-        signatureRequest.setUserTo(user);
-        signatureRequest.setDocumentVersion(documentVersion);
-        signatureRequest.setStatus(SignatureRequestState.PENDING);
-
-        return signatureRequestRepository.save(signatureRequest);
-    }
-
-    private List<SignatureRequest> sendAllParticipantsToVote(StartVotingRequest startVotingRequest) {
-        long documentVersionId = startVotingRequest.getDocumentVersionId();
-
-        List<SignatureRequest> signatureRequests = new ArrayList<>();
-        for (long participantId : startVotingRequest.getParticipantIds()) {
-            CreateSignatureRequestRequest createSignatureRequestRequest = new CreateSignatureRequestRequest();
-            createSignatureRequestRequest.setDocumentId(startVotingRequest.getDocumentId());
-            createSignatureRequestRequest.setDocumentVersionId(documentVersionId);
-            createSignatureRequestRequest.setUserIdTo(participantId);
-
-            signatureRequests.add(sendToVote(createSignatureRequestRequest));
-        }
-        return signatureRequests;
+        return uniqueIds.stream()
+                .map(id -> {
+                    SignatureRequest signatureRequest = new SignatureRequest();
+                    signatureRequest.setUserTo(users.get(id));
+                    signatureRequest.setDocumentVersion(documentVersion);
+                    signatureRequest.setStatus(SignatureRequestState.PENDING);
+                    return signatureRequest;
+                })
+                .collect(Collectors.toCollection(ArrayList::new));
     }
 }
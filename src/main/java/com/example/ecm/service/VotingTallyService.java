@@ -0,0 +1,232 @@
+package com.example.ecm.service;
+
+import com.example.ecm.exception.ConflictException;
+import com.example.ecm.model.Voting;
+import com.example.ecm.model.enums.DocumentState;
+import com.example.ecm.model.enums.SignatureRequestState;
+import com.example.ecm.repository.DocumentRepository;
+import com.example.ecm.repository.VotingRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Сервис подсчета голосов и завершения голосований.
+ *
+ * <p>Счетчики голосования обновляются при каждом голосе под блокировкой строки голосования,
+ * поэтому текущая доля одобривших всегда актуальна. Завершение по сроку выполняет очередь таймеров,
+ * упорядоченная по сроку: каждое голосование читается один раз, когда его срок наступил.
+ * Голосование завершается досрочно, если оставшиеся голоса уже не могут изменить результат.
+ * Очередь хранится в памяти и восстанавливается из активных голосований при запуске приложения;
+ * голосования, таймер которых остался на остановленном экземпляре, завершает редкая проверка просроченных.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VotingTallyService {
+
+    private final VotingRepository votingRepository;
+    private final DocumentRepository documentRepository;
+    private final MailNotificationService mailNotificationService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Общий планировщик приложения (spring.task.scheduling.*); завершение по сроку занимает его поток на одну короткую транзакцию.
+     */
+    private final TaskScheduler taskScheduler;
+
+    /**
+     * Задержка повторной попытки завершить голосование, если завершение по сроку не удалось.
+     */
+    @Value("${voting.deadline.retry-delay:1m}")
+    private Duration retryDelay;
+
+    private final Map<Long, ScheduledFuture<?>> deadlines = new ConcurrentHashMap<>();
+
+    /**
+     * Ставит в очередь сроки всех активных голосований, в том числе уже истекшие за время простоя.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleActiveVotings() {
+        votingRepository.findAllByStatus("ACTIVE")
+                .forEach(voting -> scheduleDeadline(voting.getId(), voting.getDeadline()));
+    }
+
+    /**
+     * Завершает голосования, срок которых наступил, а таймер не сработал: например, если экземпляр приложения,
+     * создавший голосование, остановился. Основное завершение по сроку выполняет очередь таймеров.
+     */
+    @Scheduled(fixedDelayString = "${voting.deadline.sweep-interval:15m}", initialDelayString = "${voting.deadline.sweep-interval:15m}")
+    public void closeOverdueVotings() {
+        votingRepository.findAllByStatusAndDeadlineLessThanEqual("ACTIVE", LocalDate.now())
+                .forEach(voting -> closeAtDeadline(voting.getId()));
+    }
+
+    /**
+     * Ставит в очередь срок нового голосования после фиксации транзакции, в которой оно создано.
+     *
+     * @param voting сохраненное голосование
+     */
+    public void register(Voting voting) {
+        Long votingId = voting.getId();
+        LocalDate deadline = voting.getDeadline();
+        TransactionCallbacks.afterCommit(() -> scheduleDeadline(votingId, deadline));
+    }
+
+    /**
+     * Учитывает голос участника. Вызывается в транзакции, в которой сохраняется статус запроса на подпись.
+     *
+     * @param voting голосование
+     * @param vote   новый статус запроса на подпись участника
+     * @throws ConflictException если голосование уже завершено или отменено
+     */
+    @Transactional
+    public void recordVote(Voting voting, SignatureRequestState vote) {
+        lock(voting);
+        if (!voting.getStatus().equals("ACTIVE")) {
+            throw new ConflictException("Voting with id: " + voting.getId() + " is not active");
+        }
+        switch (vote) {
+            case APPROVED -> voting.setApprovedCount(voting.getApprovedCount() + 1);
+            case REJECTED -> voting.setRejectedCount(voting.getRejectedCount() + 1);
+        }
+        voting.setCurrentApprovalRate(approvalRate(voting));
+        if (isDecided(voting)) {
+            complete(voting);
+            unscheduleDeadline(voting.getId());
+        }
+    }
+
+    /**
+     * Отменяет голосование и уведомляет участников.
+     *
+     * @param voting голосование
+     * @throws ConflictException если голосование уже завершено или отменено
+     */
+    @Transactional
+    public void cancel(Voting voting) {
+        lock(voting);
+        if (!voting.getStatus().equals("ACTIVE")) {
+            throw new ConflictException("Voting with id: " + voting.getId() + " is not active");
+        }
+        voting.setStatus("CANCELED");
+        votingRepository.save(voting);
+        unscheduleDeadline(voting.getId());
+        notifyParticipants(voting);
+    }
+
+    /**
+     * Доля одобривших от всех участников, в процентах.
+     */
+    static float approvalRate(Voting voting) {
+        return voting.getParticipantCount() == 0 ? 0 : voting.getApprovedCount() * 100f / voting.getParticipantCount();
+    }
+
+    /**
+     * Проверяет, что оставшиеся голоса уже не могут изменить результат: порог достигнут без них
+     * или не будет достигнут, даже если все оставшиеся участники проголосуют за.
+     */
+    static boolean isDecided(Voting voting) {
+        if (voting.getParticipantCount() == 0) {
+            return false;
+        }
+        int pending = voting.getParticipantCount() - voting.getApprovedCount() - voting.getRejectedCount();
+        float maxApprovalRate = (voting.getApprovedCount() + pending) * 100f / voting.getParticipantCount();
+        return approvalRate(voting) >= voting.getApprovalThreshold() || maxApprovalRate < voting.getApprovalThreshold();
+    }
+
+    private void scheduleDeadline(Long votingId, LocalDate deadline) {
+        long delay = Math.max(0, Duration.between(LocalDateTime.now(), deadline.atStartOfDay()).toMillis());
+        schedule(votingId, delay);
+    }
+
+    private void schedule(Long votingId, long delayMillis) {
+        ScheduledFuture<?> previous = deadlines.put(votingId,
+                taskScheduler.schedule(() -> closeAtDeadline(votingId), Instant.now().plusMillis(delayMillis)));
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    private void unscheduleDeadline(Long votingId) {
+        TransactionCallbacks.afterCommit(() -> {
+            ScheduledFuture<?> deadline = deadlines.remove(votingId);
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+        });
+    }
+
+    private void closeAtDeadline(Long votingId) {
+        deadlines.remove(votingId);
+        try {
+            transactionTemplate.executeWithoutResult(status -> votingRepository.findById(votingId).ifPresent(voting -> {
+                lock(voting);
+                if (voting.getStatus().equals("ACTIVE")) {
+                    complete(voting);
+                }
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Could not close voting {} at deadline, will retry: {}", votingId, e.getMessage());
+            schedule(votingId, retryDelay.toMillis());
+        }
+    }
+
+    /**
+     * Завершает голосование: документ принимается, если доля одобривших достигла порога.
+     * Вызывается по сроку или раньше, как только результат перестал зависеть от оставшихся голосов.
+     */
+    private void complete(Voting voting) {
+        voting.setStatus("COMPLETED");
+        voting.setCurrentApprovalRate(approvalRate(voting));
+        if (voting.getCurrentApprovalRate() >= voting.getApprovalThreshold()) {
+            voting.getDocumentVersion().getDocument().setState(DocumentState.APPROVED_BY_VOTING);
+        } else {
+            voting.getDocumentVersion().getDocument().setState(DocumentState.REJECTED_BY_VOTING);
+        }
+        documentRepository.save(voting.getDocumentVersion().getDocument());
+        votingRepository.save(voting);
+        notifyParticipants(voting);
+    }
+
+    /**
+     * Блокирует строку голосования до конца транзакции и перечитывает счетчики,
+     * чтобы одновременные голоса не потеряли обновления друг друга.
+     */
+    private void lock(Voting voting) {
+        entityManager.refresh(voting, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    private void notifyParticipants(Voting voting) {
+        String text;
+        String documentTitle = voting.getDocumentVersion().getTitle();
+        if (voting.getStatus().equals("CANCELED"))  {
+            text = "Голосование по принятию документа \"%s\" было отменено".formatted(documentTitle);
+        } else  {
+            text = "Голосование по принятию документа \"%s\"завершилось. Благодарим за участие! Поддержало: %s%%, необходимо для принятия: %s%%."
+                .formatted(documentTitle, voting.getCurrentApprovalRate(), voting.getApprovalThreshold());
+        }
+
+        mailNotificationService.sendAll(voting.getSignatureRequests().stream()
+                .map(signatureRequest -> signatureRequest.getUserTo().getEmail())
+                .toList(), "Результаты голосования", text);
+    }
+}
@@ -0,0 +1,3 @@
+ALTER TABLE Documents ADD COLUMN IF NOT EXISTS external_id VARCHAR(255);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_documents_external_id ON Documents (external_id);
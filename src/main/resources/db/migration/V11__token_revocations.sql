@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS token_revocations (
+    user_id BIGINT PRIMARY KEY REFERENCES Users (id),
+    revoked_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_token_revocations_revoked_at ON token_revocations (revoked_at);
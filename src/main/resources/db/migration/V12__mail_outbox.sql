@@ -0,0 +1,17 @@
+CREATE SEQUENCE IF NOT EXISTS mail_outbox_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS mail_outbox (
+    id BIGINT PRIMARY KEY DEFAULT nextval('mail_outbox_id_seq'),
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    sent_at TIMESTAMP
+);
+
+-- Воркер выбирает готовые к отправке письма по статусу и времени следующей попытки.
+CREATE INDEX IF NOT EXISTS idx_mail_outbox_pending ON mail_outbox (next_attempt_at) WHERE status = 'PENDING';
@@ -0,0 +1,9 @@
+CREATE SEQUENCE IF NOT EXISTS kafka_outbox_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS kafka_outbox (
+    id BIGINT PRIMARY KEY DEFAULT nextval('kafka_outbox_id_seq'),
+    topic VARCHAR(255) NOT NULL,
+    message_key VARCHAR(255),
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT now()
+);
@@ -0,0 +1,15 @@
+CREATE SEQUENCE IF NOT EXISTS signature_audit_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS signature_audit (
+    id BIGINT PRIMARY KEY DEFAULT nextval('signature_audit_id_seq'),
+    document_version_id BIGINT,
+    user_id BIGINT,
+    signer_id BIGINT,
+    placeholder_title VARCHAR(255),
+    kafka_partition INT NOT NULL,
+    kafka_offset BIGINT NOT NULL,
+    received_at TIMESTAMP NOT NULL DEFAULT now(),
+    CONSTRAINT uq_signature_audit_offset UNIQUE (kafka_partition, kafka_offset)
+);
+
+CREATE INDEX IF NOT EXISTS idx_signature_audit_document_version ON signature_audit (document_version_id);
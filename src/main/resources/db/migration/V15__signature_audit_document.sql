@@ -0,0 +1,3 @@
+ALTER TABLE signature_audit ADD COLUMN IF NOT EXISTS document_id BIGINT;
+
+CREATE INDEX IF NOT EXISTS idx_signature_audit_document ON signature_audit (document_id);
@@ -0,0 +1,21 @@
+ALTER TABLE Votings ADD COLUMN IF NOT EXISTS participant_count INT NOT NULL DEFAULT 0;
+ALTER TABLE Votings ADD COLUMN IF NOT EXISTS approved_count INT NOT NULL DEFAULT 0;
+ALTER TABLE Votings ADD COLUMN IF NOT EXISTS rejected_count INT NOT NULL DEFAULT 0;
+
+UPDATE Votings v
+SET participant_count = t.participants,
+    approved_count = t.approved,
+    rejected_count = t.rejected,
+    current_approval_rate = CASE WHEN t.participants = 0 THEN 0 ELSE t.approved * 100.0 / t.participants END
+FROM (SELECT voting_id,
+             COUNT(*) AS participants,
+             COUNT(*) FILTER (WHERE status = 'APPROVED') AS approved,
+             COUNT(*) FILTER (WHERE status = 'REJECTED') AS rejected
+      FROM Signature_Requests
+      WHERE voting_id IS NOT NULL
+      GROUP BY voting_id) t
+WHERE v.id = t.voting_id;
+
+CREATE INDEX IF NOT EXISTS idx_votings_status_deadline ON Votings (status, deadline);
+
+UPDATE Votings SET status = 'CANCELED' WHERE status = 'NEW_CANCELED';
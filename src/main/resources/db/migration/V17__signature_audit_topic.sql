@@ -0,0 +1,13 @@
+ALTER TABLE signature_audit ADD COLUMN IF NOT EXISTS topic VARCHAR(255);
+ALTER TABLE signature_audit ADD COLUMN IF NOT EXISTS kafka_timestamp BIGINT;
+
+UPDATE signature_audit SET topic = 'document_signed_events' WHERE topic IS NULL;
+UPDATE signature_audit SET kafka_timestamp = 0 WHERE kafka_timestamp IS NULL;
+
+ALTER TABLE signature_audit ALTER COLUMN topic SET NOT NULL;
+ALTER TABLE signature_audit ALTER COLUMN kafka_timestamp SET NOT NULL;
+
+-- Повторная доставка записи совпадает по топику, разделу, смещению и времени записи,
+-- а события пересозданного топика с теми же смещениями отличаются временем записи.
+ALTER TABLE signature_audit DROP CONSTRAINT IF EXISTS uq_signature_audit_offset;
+ALTER TABLE signature_audit ADD CONSTRAINT uq_signature_audit_record UNIQUE (topic, kafka_partition, kafka_offset, kafka_timestamp);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_kafka_outbox_created_at_id ON kafka_outbox (created_at, id);
@@ -0,0 +1,2 @@
+-- Индекс idx_votings_status_deadline (status, deadline) покрывает поиск по статусу.
+DROP INDEX IF EXISTS idx_votings_status;
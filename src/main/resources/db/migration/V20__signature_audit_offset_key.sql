@@ -0,0 +1,12 @@
+-- Записи до V17 получили kafka_timestamp = 0, поэтому их повторная доставка с настоящим временем записи
+-- не совпадала с ними по уникальному ключу. Ключом снова служит позиция записи: топик, раздел и смещение.
+DELETE FROM signature_audit duplicate
+USING signature_audit original
+WHERE duplicate.topic = original.topic
+  AND duplicate.kafka_partition = original.kafka_partition
+  AND duplicate.kafka_offset = original.kafka_offset
+  AND duplicate.id > original.id;
+
+ALTER TABLE signature_audit DROP CONSTRAINT IF EXISTS uq_signature_audit_record;
+ALTER TABLE signature_audit ADD CONSTRAINT uq_signature_audit_offset UNIQUE (topic, kafka_partition, kafka_offset);
+ALTER TABLE signature_audit DROP COLUMN IF EXISTS kafka_timestamp;
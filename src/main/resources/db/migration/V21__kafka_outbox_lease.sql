@@ -0,0 +1,10 @@
+ALTER TABLE kafka_outbox ADD COLUMN IF NOT EXISTS leased_until TIMESTAMP;
+ALTER TABLE kafka_outbox ADD COLUMN IF NOT EXISTS failed_at TIMESTAMP;
+ALTER TABLE kafka_outbox ADD COLUMN IF NOT EXISTS last_error TEXT;
+
+-- Очередь публикации: события, которые не отмечены как непрочитанные, в порядке записи.
+DROP INDEX IF EXISTS idx_kafka_outbox_created_at_id;
+CREATE INDEX IF NOT EXISTS idx_kafka_outbox_pending ON kafka_outbox (created_at, id) WHERE failed_at IS NULL;
+
+-- Отправляемый пакет: строки с арендой удаляются или освобождаются сразу после отправки, поэтому индекс мал.
+CREATE INDEX IF NOT EXISTS idx_kafka_outbox_leased ON kafka_outbox (leased_until) WHERE leased_until IS NOT NULL;
@@ -0,0 +1,2 @@
+-- Очистка выбирает отправленные письма старше срока хранения.
+CREATE INDEX IF NOT EXISTS idx_mail_outbox_sent ON mail_outbox (sent_at) WHERE status = 'SENT';
@@ -0,0 +1,4 @@
+-- Поколение токенов пользователя: каждый отзыв увеличивает его на единицу, а токен хранит поколение,
+-- действовавшее при выпуске. Каждая существующая запись означает хотя бы один отзыв.
+ALTER TABLE token_revocations ADD COLUMN IF NOT EXISTS generation BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE token_revocations ALTER COLUMN generation DROP DEFAULT;
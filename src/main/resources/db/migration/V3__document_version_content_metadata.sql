@@ -0,0 +1,2 @@
+ALTER TABLE Document_Version ADD COLUMN IF NOT EXISTS content_type VARCHAR(255);
+ALTER TABLE Document_Version ADD COLUMN IF NOT EXISTS content_size BIGINT;
@@ -0,0 +1 @@
+ALTER TABLE Document_Version ADD COLUMN IF NOT EXISTS content_checksum VARCHAR(64);
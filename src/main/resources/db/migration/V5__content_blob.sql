@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS content_blob (
+    checksum VARCHAR(64) PRIMARY KEY,
+    object_key VARCHAR(255) NOT NULL,
+    content_type VARCHAR(255),
+    content_size BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+ALTER TABLE Document_Version ADD COLUMN IF NOT EXISTS object_key VARCHAR(255);
@@ -0,0 +1,25 @@
+-- Версии документа: поиск по документу и номеру версии, а также MAX(id) для последней версии
+CREATE INDEX IF NOT EXISTS idx_document_version_document_id_version_id ON Document_Version (document_id, version_id);
+CREATE INDEX IF NOT EXISTS idx_document_version_document_id_id ON Document_Version (document_id, id);
+
+-- Документы: список документов автора среди активных
+CREATE INDEX IF NOT EXISTS idx_documents_user_id_alive ON Documents (user_id) WHERE is_alive;
+
+-- Запросы на подпись: видимость документов для получателя и проверки по версии
+CREATE INDEX IF NOT EXISTS idx_signature_requests_user_id_to_document_version_id ON Signature_Requests (user_id_to, document_version_id);
+CREATE INDEX IF NOT EXISTS idx_signature_requests_document_version_id ON Signature_Requests (document_version_id);
+CREATE INDEX IF NOT EXISTS idx_signature_requests_voting_id ON Signature_Requests (voting_id);
+
+-- Значения атрибутов версии
+CREATE INDEX IF NOT EXISTS idx_values_document_version_id ON Values (document_version_id);
+
+-- Атрибуты по имени (users.email уже проиндексирован ограничением uniq_email)
+CREATE INDEX IF NOT EXISTS idx_attributes_name ON Attributes (name);
+
+-- Голосования по статусу и версии документа
+CREATE INDEX IF NOT EXISTS idx_votings_status ON Votings (status);
+CREATE INDEX IF NOT EXISTS idx_votings_document_version_id ON Votings (document_version_id);
+
+-- Подписи и комментарии по владельцу
+CREATE INDEX IF NOT EXISTS idx_signatures_document_version_id ON Signatures (document_version_id);
+CREATE INDEX IF NOT EXISTS idx_comments_document_id ON Comments (document_id);
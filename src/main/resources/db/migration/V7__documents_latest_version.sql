@@ -0,0 +1,7 @@
+ALTER TABLE Documents ADD COLUMN IF NOT EXISTS latest_version_id BIGINT;
+
+UPDATE Documents d
+SET latest_version_id = (SELECT MAX(v.id) FROM Document_Version v WHERE v.document_id = d.id)
+WHERE latest_version_id IS NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_documents_latest_version_id ON Documents (latest_version_id);
@@ -0,0 +1,21 @@
+ALTER TABLE Documents ADD COLUMN IF NOT EXISTS created_at TIMESTAMP;
+UPDATE Documents d
+SET created_at = COALESCE((SELECT MIN(v.created_at) FROM Document_Version v WHERE v.document_id = d.id), now())
+WHERE created_at IS NULL;
+ALTER TABLE Documents ALTER COLUMN created_at SET DEFAULT now();
+ALTER TABLE Documents ALTER COLUMN created_at SET NOT NULL;
+
+ALTER TABLE Users ADD COLUMN IF NOT EXISTS created_at TIMESTAMP;
+UPDATE Users SET created_at = now() WHERE created_at IS NULL;
+ALTER TABLE Users ALTER COLUMN created_at SET DEFAULT now();
+ALTER TABLE Users ALTER COLUMN created_at SET NOT NULL;
+
+ALTER TABLE Attributes ADD COLUMN IF NOT EXISTS created_at TIMESTAMP;
+UPDATE Attributes SET created_at = now() WHERE created_at IS NULL;
+ALTER TABLE Attributes ALTER COLUMN created_at SET DEFAULT now();
+ALTER TABLE Attributes ALTER COLUMN created_at SET NOT NULL;
+
+-- Постраничная выборка по курсору (created_at, id)
+CREATE INDEX IF NOT EXISTS idx_documents_created_at_id ON Documents (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON Users (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_attributes_created_at_id ON Attributes (created_at, id);
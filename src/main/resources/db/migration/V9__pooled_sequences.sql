@@ -0,0 +1,9 @@
+-- Идентификаторы выделяются Hibernate блоками по 50 (оптимизатор pooled), что позволяет
+-- отправлять вставки пакетами JDBC. Шаг последовательностей должен совпадать с allocationSize.
+ALTER SEQUENCE documents_id_seq INCREMENT BY 50;
+ALTER SEQUENCE document_version_id_seq INCREMENT BY 50;
+ALTER SEQUENCE values_id_seq INCREMENT BY 50;
+ALTER SEQUENCE signature_requests_id_seq INCREMENT BY 50;
+ALTER SEQUENCE signatures_id_seq INCREMENT BY 50;
+ALTER SEQUENCE comments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE votings_id_seq INCREMENT BY 50;
@@ -0,0 +1,39 @@
+package com.example.ecm.config.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Вытеснение записей в хранилище региона кэша второго уровня.
+ */
+class LocalCacheStorageAccessTest {
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        LocalCacheStorageAccess storage = new LocalCacheStorageAccess(2);
+        storage.putIntoCache(1L, "first", null);
+        storage.putIntoCache(2L, "second", null);
+
+        assertEquals("first", storage.getFromCache(1L, null));
+        storage.putIntoCache(3L, "third", null);
+
+        assertTrue(storage.contains(1L));
+        assertFalse(storage.contains(2L));
+        assertTrue(storage.contains(3L));
+    }
+
+    @Test
+    void evictsSingleKeyAndAllData() {
+        LocalCacheStorageAccess storage = new LocalCacheStorageAccess(10);
+        storage.putIntoCache(1L, "first", null);
+        storage.putIntoCache(2L, "second", null);
+
+        storage.evictData(1L);
+        assertNull(storage.getFromCache(1L, null));
+        assertEquals("second", storage.getFromCache(2L, null));
+
+        storage.evictData();
+        assertFalse(storage.contains(2L));
+    }
+}
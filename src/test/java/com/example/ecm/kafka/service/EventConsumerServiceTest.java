@@ -0,0 +1,63 @@
+package com.example.ecm.kafka.service;
+
+import com.example.ecm.kafka.event.DocumentSignedEvent;
+import com.example.ecm.service.SignatureAuditService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+/**
+ * Пакетная обработка событий подписания: смещения подтверждаются только после записи пакета.
+ */
+class EventConsumerServiceTest {
+
+    private SignatureAuditService signatureAuditService;
+    private Acknowledgment acknowledgment;
+    private EventConsumerService consumer;
+
+    @BeforeEach
+    void setUp() {
+        signatureAuditService = mock(SignatureAuditService.class);
+        acknowledgment = mock(Acknowledgment.class);
+        consumer = new EventConsumerService(signatureAuditService);
+    }
+
+    @Test
+    void recordsBatchBeforeAcknowledgement() {
+        List<ConsumerRecord<String, DocumentSignedEvent>> records = List.of(record(0, event(1L)), record(1, event(2L)));
+
+        consumer.consumeMessages(records, acknowledgment);
+
+        var inOrder = inOrder(signatureAuditService, acknowledgment);
+        inOrder.verify(signatureAuditService).record(records);
+        inOrder.verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void recordsPrefixAndFailsAtUndeserializedRecord() {
+        List<ConsumerRecord<String, DocumentSignedEvent>> records = List.of(record(0, event(1L)), record(1, null), record(2, event(3L)));
+
+        BatchListenerFailedException e = assertThrows(BatchListenerFailedException.class,
+                () -> consumer.consumeMessages(records, acknowledgment));
+
+        assertEquals(1, e.getIndex());
+        verify(signatureAuditService).record(records.subList(0, 1));
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    private ConsumerRecord<String, DocumentSignedEvent> record(long offset, DocumentSignedEvent event) {
+        return new ConsumerRecord<>(EventProducerService.DOCUMENT_SIGNED_EVENTS_TOPIC, 0, offset, null, event);
+    }
+
+    private DocumentSignedEvent event(Long documentVersionId) {
+        return new DocumentSignedEvent(10L, documentVersionId, 1L, 2L, "signature");
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.ecm.kafka.service;
+
+import com.example.ecm.kafka.event.DocumentSignedEvent;
+import com.example.ecm.model.KafkaOutboxMessage;
+import com.example.ecm.repository.KafkaOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Публикация пакета событий из outbox: события берутся в аренду и удаляются только после подтверждения Kafka.
+ */
+class KafkaOutboxRelayTest {
+
+    private KafkaOutboxRepository kafkaOutboxRepository;
+    private KafkaTemplate<String, DocumentSignedEvent> kafkaTemplate;
+    private KafkaSendMetrics kafkaSendMetrics;
+    private KafkaOutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaOutboxRepository = mock(KafkaOutboxRepository.class);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        kafkaSendMetrics = new KafkaSendMetrics(kafkaTemplate);
+        relay = new KafkaOutboxRelay(kafkaOutboxRepository, kafkaTemplate, kafkaSendMetrics, new ObjectMapper(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(relay, "batchSize", 10);
+        ReflectionTestUtils.setField(relay, "sendTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(relay, "lease", Duration.ofMinutes(2));
+        when(kafkaOutboxRepository.tryLockRelay()).thenReturn(true);
+        when(kafkaOutboxRepository.findBatch(10)).thenReturn(List.of(message(1L), message(2L)));
+    }
+
+    @Test
+    void skipsBatchWhenAnotherInstanceIsPublishing() {
+        when(kafkaOutboxRepository.tryLockRelay()).thenReturn(false);
+
+        assertEquals(0, relay.publishBatch());
+
+        verify(kafkaOutboxRepository, never()).findBatch(anyInt());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void skipsBatchWhileAnotherBatchIsLeased() {
+        when(kafkaOutboxRepository.existsLeased(any())).thenReturn(true);
+
+        assertEquals(0, relay.publishBatch());
+
+        verify(kafkaOutboxRepository, never()).findBatch(anyInt());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void deletesBatchAfterAcknowledgement() {
+        when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(2, relay.publishBatch());
+
+        verify(kafkaOutboxRepository).lease(eq(List.of(1L, 2L)), any());
+        verify(kafkaTemplate).send(eq(EventProducerService.DOCUMENT_SIGNED_EVENTS_TOPIC), eq("1"), any(DocumentSignedEvent.class));
+        verify(kafkaTemplate).send(eq(EventProducerService.DOCUMENT_SIGNED_EVENTS_TOPIC), eq("2"), any(DocumentSignedEvent.class));
+        verify(kafkaOutboxRepository).deleteByIds(List.of(1L, 2L));
+        assertEquals(2, kafkaSendMetrics.getStatistics().getSentCount());
+    }
+
+    @Test
+    void keepsBatchWhenKafkaFails() {
+        when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker unavailable")));
+
+        assertThrows(IllegalStateException.class, relay::publishBatch);
+
+        verify(kafkaOutboxRepository, never()).deleteByIds(any());
+        verify(kafkaOutboxRepository).release(List.of(1L, 2L));
+        assertEquals(2, kafkaSendMetrics.getStatistics().getErrorCount());
+    }
+
+    @Test
+    void marksUnreadableEventFailedInsteadOfDeletingIt() {
+        KafkaOutboxMessage unreadable = new KafkaOutboxMessage(EventProducerService.DOCUMENT_SIGNED_EVENTS_TOPIC, "3", "{not json");
+        unreadable.setId(3L);
+        when(kafkaOutboxRepository.findBatch(10)).thenReturn(List.of(message(1L), unreadable, message(2L)));
+        when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(3, relay.publishBatch());
+
+        verify(kafkaOutboxRepository).deleteByIds(List.of(1L, 2L));
+        verify(kafkaOutboxRepository).markFailed(eq(3L), any(), anyString());
+    }
+
+    private KafkaOutboxMessage message(Long id) {
+        KafkaOutboxMessage message = new KafkaOutboxMessage(EventProducerService.DOCUMENT_SIGNED_EVENTS_TOPIC, String.valueOf(id),
+                "{\"documentId\":" + id + ",\"documentVersionId\":" + id + ",\"userId\":1,\"signerId\":2,\"placeholderTitle\":\"title\"}");
+        message.setId(id);
+        return message;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.ecm.repository;
+
+import com.example.ecm.model.Value;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Вставка значений атрибутов пачками: идентификаторы выдаются блоками из последовательности,
+ * поэтому Hibernate отправляет строки в одном подготовленном выражении по hibernate.jdbc.batch_size штук.
+ * Все вставки откатываются после теста.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ValueRepositoryBatchInsertTest {
+
+    private static final int ROWS = 1_000;
+
+    /**
+     * Совпадает с hibernate.jdbc.batch_size и allocationSize последовательности values_id_seq.
+     */
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private ValueRepository valueRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @Transactional
+    void insertsValuesInBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Value> values = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Value value = new Value();
+            value.setValue("batch-" + i);
+            values.add(value);
+        }
+
+        valueRepository.saveAll(values);
+        entityManager.flush();
+
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        // Одно выражение INSERT на пачку и один вызов nextval на блок идентификаторов.
+        long maxStatements = 2L * (ROWS / BATCH_SIZE) + 2;
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= maxStatements,
+                "Expected at most " + maxStatements + " prepared statements, got " + statements);
+    }
+}
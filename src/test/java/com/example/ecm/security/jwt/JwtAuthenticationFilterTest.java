@@ -0,0 +1,69 @@
+package com.example.ecm.security.jwt;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private JwtDecoder decoder;
+    private TokenRevocationStore revocationStore;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecretKey("test-secret");
+        token = new JwtIssuer(properties).issue(1L, "user", List.of("USER"), 0);
+        decoder = spy(new JwtDecoder(properties));
+        revocationStore = mock(TokenRevocationStore.class);
+        filter = new JwtAuthenticationFilter(decoder, new JwtToPrincipalConverter(),
+                new JwtPrincipalCache(100, Duration.ofMinutes(5)), revocationStore);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void repeatedTokenIsVerifiedOnce() throws Exception {
+        assertNotNull(authenticate());
+        assertNotNull(authenticate());
+
+        verify(decoder, times(1)).decode(token);
+    }
+
+    @Test
+    void cachedTokenIsRejectedAfterRevocation() throws Exception {
+        assertNotNull(authenticate());
+
+        when(revocationStore.isRevoked(1L, 0L)).thenReturn(true);
+
+        assertNull(authenticate());
+        verify(decoder, times(1)).decode(token);
+    }
+
+    private Authentication authenticate() throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.ecm.security.jwt;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.ecm.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Кэш проверенных токенов: срок жизни записи и ограничение размера.
+ */
+class JwtPrincipalCacheTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final MutableClock clock = new MutableClock(NOW);
+
+    @Test
+    void expiresEntryAfterTtl() {
+        JwtPrincipalCache cache = new JwtPrincipalCache(10, Duration.ofMinutes(5), clock);
+        UserPrincipal principal = principal(1L);
+        cache.put("token", jwt(NOW.plus(Duration.ofHours(1))), principal);
+
+        clock.advance(Duration.ofMinutes(4));
+        assertSame(principal, cache.get("token"));
+
+        clock.advance(Duration.ofMinutes(1));
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void expiresEntryWithToken() {
+        JwtPrincipalCache cache = new JwtPrincipalCache(10, Duration.ofMinutes(5), clock);
+        cache.put("token", jwt(NOW.plus(Duration.ofMinutes(1))), principal(1L));
+
+        clock.advance(Duration.ofMinutes(1));
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void evictsTokensExpiringFirstWhenFull() {
+        JwtPrincipalCache cache = new JwtPrincipalCache(2, Duration.ofMinutes(5), clock);
+        UserPrincipal second = principal(2L);
+        UserPrincipal third = principal(3L);
+        cache.put("first", jwt(null), principal(1L));
+        clock.advance(Duration.ofSeconds(1));
+        cache.put("second", jwt(null), second);
+        clock.advance(Duration.ofSeconds(1));
+
+        cache.put("third", jwt(null), third);
+
+        assertNull(cache.get("first"));
+        assertSame(second, cache.get("second"));
+        assertSame(third, cache.get("third"));
+    }
+
+    @Test
+    void staysWithinMaxSize() {
+        JwtPrincipalCache cache = new JwtPrincipalCache(10, Duration.ofMinutes(5), clock);
+        for (long i = 0; i < 100; i++) {
+            cache.put("token-" + i, jwt(null), principal(i));
+            clock.advance(Duration.ofSeconds(1));
+        }
+
+        assertTrue(cache.size() <= 10);
+        assertNotNull(cache.get("token-99"));
+    }
+
+    @Test
+    void cachesNothingWithZeroSize() {
+        JwtPrincipalCache cache = new JwtPrincipalCache(0, Duration.ofMinutes(5), clock);
+        cache.put("token", jwt(null), principal(1L));
+
+        assertNull(cache.get("token"));
+    }
+
+    private DecodedJWT jwt(Instant expiresAt) {
+        DecodedJWT jwt = mock(DecodedJWT.class);
+        when(jwt.getExpiresAtAsInstant()).thenReturn(expiresAt);
+        return jwt;
+    }
+
+    private UserPrincipal principal(Long id) {
+        return UserPrincipal.builder().id(id).build();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
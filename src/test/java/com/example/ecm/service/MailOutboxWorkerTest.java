@@ -0,0 +1,187 @@
+package com.example.ecm.service;
+
+import com.example.ecm.model.MailOutboxMessage;
+import com.example.ecm.model.enums.MailStatus;
+import com.example.ecm.repository.MailOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Отправка очереди писем через локальный SMTP-сервер, запущенный в тесте.
+ */
+class MailOutboxWorkerTest {
+
+    private LocalSmtpServer smtpServer;
+    private MailOutboxRepository mailOutboxRepository;
+    private JavaMailSenderImpl mailSender;
+    private MailOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new LocalSmtpServer();
+        mailOutboxRepository = mock(MailOutboxRepository.class);
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.getPort());
+
+        worker = new MailOutboxWorker(mailOutboxRepository, mailSender, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new SyncTaskExecutor());
+        ReflectionTestUtils.setField(worker, "fromEmail", "noreply@example.com");
+        ReflectionTestUtils.setField(worker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(worker, "backoffInitial", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(worker, "backoffMax", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(worker, "retention", Duration.ofDays(7));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtpServer.close();
+    }
+
+    @Test
+    void sendsBatchThroughSingleConnection() {
+        worker.deliver(List.of(message(1L, "a@example.com"), message(2L, "b@example.com"), message(3L, "c@example.com")));
+
+        assertEquals(1, smtpServer.getConnections());
+        assertEquals(3, smtpServer.getMessages());
+        verify(mailOutboxRepository).markSent(eq(List.of(1L, 2L, 3L)), eq(MailStatus.SENT), any());
+        verify(mailOutboxRepository, never()).markFailed(anyLong(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void schedulesRetryWhenServerIsUnavailable() throws IOException {
+        smtpServer.close();
+
+        worker.deliver(List.of(message(1L, "a@example.com")));
+
+        verify(mailOutboxRepository).markFailed(eq(1L), eq(MailStatus.PENDING), eq(1), any(), any());
+        verify(mailOutboxRepository, never()).markSent(any(), any(), any());
+    }
+
+    @Test
+    void doublesBackoffUpToLimit() {
+        assertEquals(Duration.ofSeconds(30), worker.backoff(1));
+        assertEquals(Duration.ofSeconds(60), worker.backoff(2));
+        assertEquals(Duration.ofMinutes(5), worker.backoff(10));
+    }
+
+    @Test
+    void purgesSentMailInBatchesUntilNoneLeft() {
+        when(mailOutboxRepository.deleteSentBefore(any(), eq(MailOutboxWorker.PURGE_BATCH_SIZE)))
+                .thenReturn(MailOutboxWorker.PURGE_BATCH_SIZE, 10);
+        LocalDateTime startedAt = LocalDateTime.now();
+
+        worker.purgeSent();
+
+        ArgumentCaptor<LocalDateTime> before = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(mailOutboxRepository, times(2)).deleteSentBefore(before.capture(), eq(MailOutboxWorker.PURGE_BATCH_SIZE));
+        Duration age = Duration.between(before.getValue(), startedAt);
+        assertTrue(age.compareTo(Duration.ofDays(7).minusMinutes(1)) > 0 && age.compareTo(Duration.ofDays(7).plusMinutes(1)) < 0);
+    }
+
+    private MailOutboxMessage message(Long id, String recipient) {
+        MailOutboxMessage message = new MailOutboxMessage(recipient, "Тема", "Текст");
+        message.setId(id);
+        return message;
+    }
+
+    /**
+     * Минимальный SMTP-сервер: принимает все письма и считает соединения.
+     */
+    private static class LocalSmtpServer implements AutoCloseable {
+        private final ServerSocket serverSocket;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        LocalSmtpServer() throws IOException {
+            serverSocket = new ServerSocket(0);
+            Thread thread = new Thread(this::acceptConnections, "local-smtp");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        int getConnections() {
+            return connections.get();
+        }
+
+        int getMessages() {
+            return messages.size();
+        }
+
+        private void acceptConnections() {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept()) {
+                    connections.incrementAndGet();
+                    handle(socket);
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            reply(out, "220 localhost");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            data.append(line).append('\n');
+                        }
+                        messages.add(data.toString());
+                        reply(out, "250 OK");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        }
+
+        private void reply(PrintWriter out, String response) {
+            out.print(response + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ecm.service;
+
+import com.example.ecm.model.DocumentVersion;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.MinioClient;
+import io.minio.StatObjectArgs;
+import okhttp3.Headers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Подсчет обращений к MinIO при чтении содержимого документов.
+ * Раньше на каждую версию выполнялись getObject и statObject (2 обращения),
+ * теперь MIME-тип берется из версии или из заголовков ответа getObject (1 обращение).
+ */
+class MinioServiceRoundTripTest {
+
+    private static final int DOCUMENTS_ON_PAGE = 10;
+
+    private MinioClient minioClient;
+    private MinioService minioService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        minioClient = mock(MinioClient.class);
+        minioService = new MinioService(minioClient, new SimpleAsyncTaskExecutor());
+        ReflectionTestUtils.setField(minioService, "bucketName", "bucket");
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenAnswer(invocation -> new GetObjectResponse(
+                Headers.of("Content-Type", "application/pdf"),
+                "bucket",
+                null,
+                "1_file.pdf",
+                new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void listingPageIssuesOneRequestPerDocument() throws Exception {
+        for (int i = 0; i < DOCUMENTS_ON_PAGE; i++) {
+            DocumentVersion version = new DocumentVersion();
+            version.setId((long) i);
+            version.setFilename("file.pdf");
+            version.setContentType("application/pdf");
+            minioService.getBase64Document(version);
+        }
+
+        verify(minioClient, times(DOCUMENTS_ON_PAGE)).getObject(any(GetObjectArgs.class));
+        verify(minioClient, never()).statObject(any(StatObjectArgs.class));
+        verifyNoMoreInteractions(minioClient);
+    }
+
+    @Test
+    void contentTypeIsReadFromResponseHeadersWhenNotStored() throws Exception {
+        String content = minioService.getBase64DocumentByName("1_file.pdf");
+
+        assertEquals("filename:file.pdf;data:application/pdf;base64,Y29udGVudA==", content);
+        verify(minioClient, never()).statObject(any(StatObjectArgs.class));
+    }
+}
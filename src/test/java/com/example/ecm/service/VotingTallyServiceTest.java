@@ -0,0 +1,111 @@
+package com.example.ecm.service;
+
+import com.example.ecm.exception.ConflictException;
+import com.example.ecm.model.Document;
+import com.example.ecm.model.DocumentVersion;
+import com.example.ecm.model.Voting;
+import com.example.ecm.model.enums.DocumentState;
+import com.example.ecm.model.enums.SignatureRequestState;
+import com.example.ecm.repository.DocumentRepository;
+import com.example.ecm.repository.VotingRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Подсчет голосов: счетчики обновляются под блокировкой строки голосования,
+ * а голосование завершается, как только результат перестал зависеть от оставшихся голосов.
+ */
+class VotingTallyServiceTest {
+
+    private EntityManager entityManager;
+    private DocumentRepository documentRepository;
+    private MailNotificationService mailNotificationService;
+    private VotingTallyService votingTallyService;
+
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        documentRepository = mock(DocumentRepository.class);
+        mailNotificationService = mock(MailNotificationService.class);
+        votingTallyService = new VotingTallyService(mock(VotingRepository.class), documentRepository,
+                mailNotificationService, entityManager, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                mock(TaskScheduler.class));
+    }
+
+    @Test
+    void countsVotesAsPercentOfParticipants() {
+        Voting voting = voting(4, 50f);
+
+        votingTallyService.recordVote(voting, SignatureRequestState.APPROVED);
+        votingTallyService.recordVote(voting, SignatureRequestState.REJECTED);
+
+        assertEquals("ACTIVE", voting.getStatus());
+        verify(entityManager, times(2)).refresh(voting, LockModeType.PESSIMISTIC_WRITE);
+        assertEquals(1, voting.getApprovedCount());
+        assertEquals(1, voting.getRejectedCount());
+        assertEquals(25f, voting.getCurrentApprovalRate());
+    }
+
+    @Test
+    void rejectsVoteForClosedVoting() {
+        Voting voting = voting(4, 50f);
+        voting.setStatus("COMPLETED");
+
+        assertThrows(ConflictException.class, () -> votingTallyService.recordVote(voting, SignatureRequestState.APPROVED));
+        assertEquals(0, voting.getApprovedCount());
+    }
+
+    @Test
+    void approvesAsSoonAsThresholdIsReached() {
+        Voting voting = voting(300, 50f);
+        voting.setApprovedCount(149);
+        voting.setRejectedCount(10);
+
+        votingTallyService.recordVote(voting, SignatureRequestState.APPROVED);
+
+        assertEquals("COMPLETED", voting.getStatus());
+        assertEquals(DocumentState.APPROVED_BY_VOTING, voting.getDocumentVersion().getDocument().getState());
+        verify(documentRepository).save(voting.getDocumentVersion().getDocument());
+        verify(mailNotificationService).sendAll(anyList(), anyString(), anyString());
+    }
+
+    @Test
+    void rejectsAsSoonAsThresholdIsUnreachable() {
+        Voting voting = voting(10, 60f);
+        voting.setRejectedCount(4);
+
+        votingTallyService.recordVote(voting, SignatureRequestState.REJECTED);
+
+        assertEquals("COMPLETED", voting.getStatus());
+        assertEquals(DocumentState.REJECTED_BY_VOTING, voting.getDocumentVersion().getDocument().getState());
+    }
+
+    private Voting voting(int participants, float threshold) {
+        Document document = new Document();
+        document.setState(DocumentState.SENT_ON_VOTING);
+        DocumentVersion documentVersion = new DocumentVersion();
+        documentVersion.setDocument(document);
+        documentVersion.setTitle("title");
+        Voting voting = new Voting();
+        voting.setId(1L);
+        voting.setStatus("ACTIVE");
+        voting.setParticipantCount(participants);
+        voting.setApprovalThreshold(threshold);
+        voting.setDocumentVersion(documentVersion);
+        voting.setSignatureRequests(List.of());
+        return voting;
+    }
+}
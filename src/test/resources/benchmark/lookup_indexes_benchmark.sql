@@ -0,0 +1,59 @@
+-- Бенчмарк индексов из V6__lookup_indexes.sql.
+-- Запускается через psql на пустой базе, к которой применены миграции Flyway:
+--   psql -d ecm_benchmark -f lookup_indexes_benchmark.sql
+-- Скрипт наполняет таблицы (1 000 000 версий документов, 1 000 000 значений атрибутов,
+-- 1 000 000 запросов на подпись), затем выводит планы и время горячих запросов
+-- без индексов (внутри транзакции, которая откатывается) и с индексами.
+
+\timing on
+
+INSERT INTO users(name, surname, email, password, is_alive)
+SELECT 'user' || g, 'user' || g, 'user' || g || '@example.com', 'x', true
+FROM generate_series(1, 10000) g;
+
+INSERT INTO attributes(name, required, is_alive)
+SELECT 'attr' || g, false, true
+FROM generate_series(1, 1000) g;
+
+INSERT INTO documents(user_id, type_id, state, is_alive)
+SELECT 1 + g % 10000, 1, 'CREATED', g % 10 <> 0
+FROM generate_series(1, 250000) g;
+
+INSERT INTO document_version(version_id, document_id, title, filename, description, created_at)
+SELECT 1 + (g - 1) / 250000, 1 + (g - 1) % 250000, 'title' || g, 'file' || g || '.txt', 'benchmark', now() - (g || ' seconds')::interval
+FROM generate_series(1, 1000000) g;
+
+INSERT INTO values(attribute_id, document_version_id, value)
+SELECT 1 + g % 1000, g, 'value' || g
+FROM generate_series(1, 1000000) g;
+
+INSERT INTO votings(document_version_id, status, approval_threshold, current_approval_rate, created_at, deadline)
+SELECT g * 10, CASE WHEN g % 20 = 0 THEN 'ACTIVE' ELSE 'APPROVED' END, 50, 0, now(), now() + interval '7 days'
+FROM generate_series(1, 100000) g;
+
+INSERT INTO signature_requests(user_id_to, voting_id, document_version_id, status)
+SELECT 1 + g % 10000, 1 + g % 100000, 1 + g % 1000000, 'PENDING'
+FROM generate_series(1, 1000000) g;
+
+UPDATE documents d
+SET latest_version_id = (SELECT max(v.id) FROM document_version v WHERE v.document_id = d.id);
+
+ANALYZE;
+
+\echo '=== Без индексов ==='
+BEGIN;
+DROP INDEX idx_document_version_document_id_version_id;
+DROP INDEX idx_document_version_document_id_id;
+DROP INDEX idx_documents_user_id_alive;
+DROP INDEX idx_signature_requests_user_id_to_document_version_id;
+DROP INDEX idx_signature_requests_document_version_id;
+DROP INDEX idx_signature_requests_voting_id;
+DROP INDEX idx_values_document_version_id;
+DROP INDEX idx_attributes_name;
+DROP INDEX idx_votings_status;
+DROP INDEX idx_votings_document_version_id;
+\ir lookup_indexes_queries.sql
+ROLLBACK;
+
+\echo '=== С индексами ==='
+\ir lookup_indexes_queries.sql
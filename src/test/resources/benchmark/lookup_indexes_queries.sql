@@ -0,0 +1,38 @@
+-- Горячие запросы приложения, используемые в lookup_indexes_benchmark.sql.
+
+-- DocumentVersionRepository.findByDocumentIdAndVersionId
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM document_version WHERE document_id = 123456 AND version_id = 3;
+
+-- DocumentSpecification: документы пользователя с последней версией
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT d.id
+FROM documents d
+JOIN document_version v ON v.id = d.latest_version_id
+WHERE d.is_alive
+  AND (d.user_id = 42 OR EXISTS (SELECT 1
+                                 FROM signature_requests sr
+                                 JOIN document_version srv ON srv.id = sr.document_version_id
+                                 WHERE sr.user_id_to = 42 AND srv.document_id = d.id))
+ORDER BY v.created_at DESC, d.id DESC
+LIMIT 10;
+
+-- SignatureRequestRepository.existsByUserToIdAndDocumentVersionId
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT 1 FROM signature_requests WHERE user_id_to = 42 AND document_version_id = 500042 LIMIT 1;
+
+-- Значения атрибутов версии документа
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM values WHERE document_version_id = 777777;
+
+-- AttributeRepository.findByName
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM attributes WHERE name = 'attr500';
+
+-- UserRepository.findByEmail
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM users WHERE email = 'user4242@example.com';
+
+-- VotingRepository.findByStatus
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM votings WHERE status = 'ACTIVE';